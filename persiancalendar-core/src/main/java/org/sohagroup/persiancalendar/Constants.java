@@ -39,5 +39,6 @@ public class Constants {
   public static final String INPUT_DATE_NUT_NULL_MESSAGE="Input date string cannot be null or empty.";
   public static final String ERROR_IN_PARSING_INPUT_DATE_MESSAGE="Error parsing the input date string: ";
   public static final String DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE="dateTimeNoZone param must not be null";
+  public static final String UNSUPPORTED_PATTERN_MESSAGE="Pattern is not supported by persiancalendar-core, use DateConverter of persiancalendar: ";
 
 }
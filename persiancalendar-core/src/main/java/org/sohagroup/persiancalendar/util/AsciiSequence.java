@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable view of an ASCII byte range as characters, used to run {@link IsoTimestampMatcher}
+ * straight over raw bytes. Bytes above 0x7F read as their ISO-8859-1 character, so they never
+ * match.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+final class AsciiSequence implements CharSequence {
+  private byte[] bytes;
+  private int offset;
+  private int length;
+
+  /** Views {@code bytes[offset, end)}, index 0 being {@code offset}. */
+  AsciiSequence wrap(byte[] bytes, int offset, int end) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.length = end - offset;
+    return this;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    return (char) (bytes[offset + index] & 0xff);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override
+  public String toString() {
+    return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+  }
+}
@@ -15,6 +15,9 @@
  */
 package org.sohagroup.persiancalendar.util;
 
+import static org.sohagroup.persiancalendar.Constants.ASIA_TEHRAN_ZONE;
+
+import java.time.ZoneId;
 import java.util.Objects;
 
 /**
@@ -26,11 +29,13 @@ public class DateConverterConfig {
   private final String dateFormat;
   private final String datetimeFormat;
   private final String findDateFormat;
+  private final ZoneId zone;
 
   private DateConverterConfig(Builder builder) {
     this.dateFormat = builder.dateFormat;
     this.datetimeFormat = builder.datetimeFormat;
     this.findDateFormat = builder.findDateFormat;
+    this.zone = builder.zone;
   }
 
   // Builder class
@@ -38,6 +43,7 @@ public class DateConverterConfig {
     private String dateFormat = "yyyy/MM/dd";
     private String datetimeFormat = "yyyy/MM/dd'T'HH:mm:ss";
     private String findDateFormat = "yyyyMMdd";
+    private ZoneId zone = ZoneId.of(ASIA_TEHRAN_ZONE);
 
     public Builder withDateFormat(String format) {
       this.dateFormat = format;
@@ -54,6 +60,20 @@ public class DateConverterConfig {
       return this;
     }
 
+    /**
+     * Zone instants are formatted and parsed in, and {@code LocalDate} and {@code LocalDateTime}
+     * inputs are taken in, {@value org.sohagroup.persiancalendar.Constants#ASIA_TEHRAN_ZONE} by
+     * default.
+     */
+    public Builder withZone(ZoneId zone) {
+      this.zone = Objects.requireNonNull(zone, "zone param must not be null");
+      return this;
+    }
+
+    public Builder withZone(String zoneId) {
+      return withZone(ZoneId.of(Objects.requireNonNull(zoneId, "zoneId param must not be null")));
+    }
+
     public DateConverterConfig build() {
       return new DateConverterConfig(this);
     }
@@ -72,18 +92,24 @@ public class DateConverterConfig {
     return findDateFormat;
   }
 
+  public ZoneId getZone() {
+    return zone;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     DateConverterConfig that = (DateConverterConfig) o;
     return Objects.equals(dateFormat, that.dateFormat)
-        && Objects.equals(datetimeFormat, that.datetimeFormat);
+        && Objects.equals(datetimeFormat, that.datetimeFormat)
+        && Objects.equals(findDateFormat, that.findDateFormat)
+        && Objects.equals(zone, that.zone);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(dateFormat, datetimeFormat);
+    return Objects.hash(dateFormat, datetimeFormat, findDateFormat, zone);
   }
 
   @Override
@@ -98,6 +124,8 @@ public class DateConverterConfig {
         + ", findDateFormat='"
         + findDateFormat
         + '\''
+        + ", zone="
+        + zone
         + '}';
   }
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+/**
+ * Single-pass matcher for ISO-8601 dates and timestamps inside free text. It recognizes {@code
+ * yyyy-MM-dd}, optionally followed by {@code 'T'} or a space and {@code HH:mm[:ss]}, an optional
+ * fraction introduced by {@code '.'} or {@code ','} and an optional {@code Z} or {@code +HH:mm}
+ * offset. Every character is inspected at most once, there is no backtracking.
+ *
+ * <p>The parsed fields of the last successful match are kept in this instance, so a matcher must
+ * not be shared between threads.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+final class IsoTimestampMatcher {
+
+  /** Returned when the input does not start with a timestamp. */
+  static final int NO_MATCH = -1;
+
+  /** Returned when more input is needed to decide, only possible when not at end of input. */
+  static final int NEED_MORE = -2;
+
+  /** Longest token: date(10) + separator(1) + time(8) + fraction(10) + offset(6). */
+  static final int MAX_TOKEN_LENGTH = 35;
+
+  int year;
+  int month;
+  int day;
+  boolean hasTime;
+  int hour;
+  int minute;
+  int second;
+  /** Start and end of the fraction including its separator, equal when absent. */
+  int fractionStart;
+  int fractionEnd;
+  boolean hasOffset;
+  int offsetSeconds;
+
+  /**
+   * Tries to match a timestamp starting at {@code from}.
+   *
+   * @param in the text to scan
+   * @param from first character of the candidate, expected to be a digit
+   * @param limit end of the valid region of {@code in}
+   * @param eof whether {@code limit} is the end of the whole input
+   * @return the end of the matched token, {@link #NO_MATCH} or {@link #NEED_MORE}
+   */
+  int match(CharSequence in, int from, int limit, boolean eof) {
+    if (!eof && limit - from <= MAX_TOKEN_LENGTH) {
+      return NEED_MORE;
+    }
+    int p = from;
+    if (limit - p < 10
+        || in.charAt(p + 4) != '-'
+        || in.charAt(p + 7) != '-') {
+      return NO_MATCH;
+    }
+    year = digits(in, p, 4);
+    month = digits(in, p + 5, 2);
+    day = digits(in, p + 8, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+      return NO_MATCH;
+    }
+    p += 10;
+    hasTime = false;
+    hasOffset = false;
+    hour = 0;
+    minute = 0;
+    second = 0;
+    offsetSeconds = 0;
+    fractionStart = fractionEnd = 0;
+    if (p + 6 <= limit && (in.charAt(p) == 'T' || in.charAt(p) == ' ')
+        && in.charAt(p + 3) == ':') {
+      int h = digits(in, p + 1, 2);
+      int m = digits(in, p + 4, 2);
+      if (h >= 0 && h < 24 && m >= 0 && m < 60) {
+        hasTime = true;
+        hour = h;
+        minute = m;
+        p += 6;
+        if (p + 3 <= limit && in.charAt(p) == ':') {
+          int s = digits(in, p + 1, 2);
+          if (s >= 0 && s < 60) {
+            second = s;
+            p += 3;
+            if (p + 1 < limit && (in.charAt(p) == '.' || in.charAt(p) == ',')
+                && isDigit(in.charAt(p + 1))) {
+              fractionStart = p;
+              p++;
+              int end = Math.min(limit, p + 9);
+              while (p < end && isDigit(in.charAt(p))) {
+                p++;
+              }
+              fractionEnd = p;
+            }
+          }
+        }
+        if (p < limit && in.charAt(p) == 'Z') {
+          hasOffset = true;
+          p++;
+        } else if (p + 6 <= limit
+            && (in.charAt(p) == '+' || in.charAt(p) == '-')
+            && in.charAt(p + 3) == ':') {
+          int oh = digits(in, p + 1, 2);
+          int om = digits(in, p + 4, 2);
+          if (oh >= 0 && oh <= 18 && om >= 0 && om < 60) {
+            hasOffset = true;
+            offsetSeconds = (oh * 3600 + om * 60) * (in.charAt(p) == '-' ? -1 : 1);
+            p += 6;
+          }
+        }
+      }
+    }
+    if (p < limit && isDigit(in.charAt(p))) {
+      return NO_MATCH;
+    }
+    return p;
+  }
+
+  static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  static boolean isWordChar(int c) {
+    return isDigit(c) || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == '_';
+  }
+
+  private static int digits(CharSequence in, int from, int count) {
+    int value = 0;
+    for (int i = from; i < from + count; i++) {
+      char c = in.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Pipeline stage converting instants to Persian date-times in batches. Values passed to {@link
+ * #accept(long)} are grouped into batches of {@code batchSize}, each batch is converted on the
+ * executor with a {@link SequentialPersianConverter}, so consecutive values of a day share their
+ * formatting, and the results are passed to the downstream consumer in the order of the input,
+ * one list per batch.
+ *
+ * <p>At most {@code maxPendingBatches} batches are converting or waiting for the downstream
+ * consumer; {@link #accept(long)} blocks the producer once that many are pending, so a slow
+ * downstream consumer slows the producer down instead of filling the memory. The downstream
+ * consumer is never called concurrently.
+ *
+ * <p>A failure of the downstream consumer stops the stage: the next {@link #accept(long)}, {@link
+ * #flush()} or {@link #close()} throws an {@link IllegalStateException} with the failure as cause.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianBatchConverter implements LongConsumer, AutoCloseable {
+  private final PersianDateFormatter format;
+  private final ZoneId zone;
+  private final Executor executor;
+  private final Consumer<List<String>> downstream;
+  private final int batchSize;
+  private final Semaphore permits;
+  private final int maxPendingBatches;
+
+  private final AtomicInteger pendingBatches = new AtomicInteger();
+  private final AtomicInteger peakPendingBatches = new AtomicInteger();
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong elements = new AtomicLong();
+
+  private long[] batch;
+  private int size;
+  private CompletableFuture<Void> delivered = CompletableFuture.completedFuture(null);
+  private boolean closed;
+
+  /**
+   * Uses the date-time format and zone of a converter.
+   *
+   * @param converter formats and zone of the output
+   * @param executor converts the batches, several at a time when it has several threads
+   * @param batchSize number of values per batch
+   * @param maxPendingBatches number of batches converting or waiting for the downstream consumer
+   * @param downstream receives the converted batches in order
+   */
+  public PersianBatchConverter(
+      PersianDateConverter converter,
+      Executor executor,
+      int batchSize,
+      int maxPendingBatches,
+      Consumer<List<String>> downstream) {
+    this(
+        converter.getDateTimeFormatter(),
+        converter.getZone(),
+        executor,
+        batchSize,
+        maxPendingBatches,
+        downstream);
+  }
+
+  /**
+   * @param format the output format
+   * @param zone the zone of the output
+   * @param executor converts the batches, several at a time when it has several threads
+   * @param batchSize number of values per batch
+   * @param maxPendingBatches number of batches converting or waiting for the downstream consumer
+   * @param downstream receives the converted batches in order
+   */
+  public PersianBatchConverter(
+      PersianDateFormatter format,
+      ZoneId zone,
+      Executor executor,
+      int batchSize,
+      int maxPendingBatches,
+      Consumer<List<String>> downstream) {
+    this.format = Objects.requireNonNull(format, "format param must not be null");
+    this.zone = Objects.requireNonNull(zone, "zone param must not be null");
+    this.executor = Objects.requireNonNull(executor, "executor param must not be null");
+    this.downstream = Objects.requireNonNull(downstream, "downstream param must not be null");
+    if (batchSize < 1 || maxPendingBatches < 1) {
+      throw new IllegalArgumentException(
+          "batchSize and maxPendingBatches must be positive: "
+              + batchSize
+              + ", "
+              + maxPendingBatches);
+    }
+    this.batchSize = batchSize;
+    this.maxPendingBatches = maxPendingBatches;
+    this.permits = new Semaphore(maxPendingBatches);
+    this.batch = new long[batchSize];
+  }
+
+  /**
+   * Adds a value, converting the batch once it is full.
+   *
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @throws IllegalStateException if the stage is closed or has failed
+   */
+  @Override
+  public synchronized void accept(long epochMillis) {
+    checkOpen();
+    batch[size++] = epochMillis;
+    if (size == batchSize) {
+      submit();
+    }
+  }
+
+  /**
+   * @param instant the value to add
+   * @throws IllegalStateException if the stage is closed or has failed
+   */
+  public void accept(Instant instant) {
+    Objects.requireNonNull(instant, "instant param must not be null");
+    accept(instant.toEpochMilli());
+  }
+
+  /**
+   * Converts the values of the incomplete batch and waits until every batch has been passed to the
+   * downstream consumer.
+   *
+   * @throws IllegalStateException if the stage is closed or has failed
+   */
+  public void flush() {
+    CompletableFuture<Void> last;
+    synchronized (this) {
+      checkOpen();
+      if (size > 0) {
+        submit();
+      }
+      last = delivered;
+    }
+    await(last);
+  }
+
+  /**
+   * Flushes and stops accepting values. The executor is not shut down.
+   *
+   * @throws IllegalStateException if the stage has failed
+   */
+  @Override
+  public void close() {
+    CompletableFuture<Void> last;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (size > 0 && !delivered.isCompletedExceptionally()) {
+        submit();
+      }
+      last = delivered;
+    }
+    await(last);
+  }
+
+  /** @return batches converting or waiting for the downstream consumer */
+  public int getPendingBatches() {
+    return pendingBatches.get();
+  }
+
+  /** @return the highest number of pending batches seen */
+  public int getPeakPendingBatches() {
+    return peakPendingBatches.get();
+  }
+
+  /** @return the bound of pending batches */
+  public int getMaxPendingBatches() {
+    return maxPendingBatches;
+  }
+
+  /** @return number of batches submitted */
+  public long getBatchCount() {
+    return batches.get();
+  }
+
+  /** @return number of values submitted */
+  public long getElementCount() {
+    return elements.get();
+  }
+
+  /** @return mean number of values per submitted batch, 0 before the first batch */
+  public double getAverageBatchSize() {
+    long count = batches.get();
+    return count == 0 ? 0 : (double) elements.get() / count;
+  }
+
+  /** Hands the current batch to the executor, waiting for a permit. Called holding the lock. */
+  private void submit() {
+    permits.acquireUninterruptibly();
+    long[] values = size == batchSize ? batch : Arrays.copyOf(batch, size);
+    batch = new long[batchSize];
+    size = 0;
+    batches.incrementAndGet();
+    elements.addAndGet(values.length);
+    int pending = pendingBatches.incrementAndGet();
+    peakPendingBatches.accumulateAndGet(pending, Math::max);
+    CompletableFuture<List<String>> converted;
+    try {
+      converted = CompletableFuture.supplyAsync(() -> convert(values), executor);
+    } catch (RuntimeException e) {
+      release();
+      throw e;
+    }
+    delivered =
+        delivered
+            .thenCombine(converted, (ignored, result) -> result)
+            .thenAccept(downstream)
+            .whenComplete((ignored, failure) -> release());
+  }
+
+  private List<String> convert(long[] values) {
+    SequentialPersianConverter converter = new SequentialPersianConverter(format, zone);
+    String[] result = new String[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = converter.format(values[i]);
+    }
+    return Arrays.asList(result);
+  }
+
+  private void release() {
+    pendingBatches.decrementAndGet();
+    permits.release();
+  }
+
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Batch converter is closed");
+    }
+    if (delivered.isCompletedExceptionally()) {
+      await(delivered);
+    }
+  }
+
+  private static void await(CompletableFuture<Void> future) {
+    try {
+      future.join();
+    } catch (CompletionException e) {
+      throw new IllegalStateException("Batch conversion failed", e.getCause());
+    }
+  }
+}
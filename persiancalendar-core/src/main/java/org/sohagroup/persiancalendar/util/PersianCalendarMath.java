@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+/**
+ * Arithmetic Persian (Solar Hijri) calendar, using the same 33 year cycle as ICU4J's {@code
+ * PersianCalendar} so results are identical to {@code DateConverter}. Days are exchanged as
+ * epoch days, the same count as {@link java.time.LocalDate#toEpochDay()}, and Persian dates as
+ * packed {@code int} values of the form {@code yyyyMMdd}, for example {@code 14030101}, which sort
+ * in calendar order for positive years.
+ *
+ * <p>All methods are static, allocation free and thread-safe.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianCalendarMath {
+
+  private PersianCalendarMath() {
+    throw new IllegalStateException("Utility Class, cannot be instantiate");
+  }
+
+  /** Epoch day of 1 Farvardin 1, which is julian day 1948320. */
+  public static final long PERSIAN_EPOCH_DAY = 1948320L - 2440588L;
+
+  /**
+   * Checks whether the Persian year has 366 days, in which case Esfand has 30 days.
+   *
+   * @param year Persian year
+   * @return true for leap years
+   */
+  public static boolean isLeapYear(int year) {
+    return Math.floorMod(25L * year + 11, 33L) < 8;
+  }
+
+  /**
+   * @param year Persian year
+   * @return 365 or 366
+   */
+  public static int lengthOfYear(int year) {
+    return isLeapYear(year) ? 366 : 365;
+  }
+
+  /**
+   * @param year Persian year
+   * @param month Persian month, 1 (Farvardin) to 12 (Esfand)
+   * @return number of days in the month
+   */
+  public static int lengthOfMonth(int year, int month) {
+    checkMonth(month);
+    if (month <= 6) {
+      return 31;
+    }
+    if (month <= 11) {
+      return 30;
+    }
+    return isLeapYear(year) ? 30 : 29;
+  }
+
+  /**
+   * @param month Persian month, 1 to 12
+   * @return number of days in the year before the first day of the month
+   */
+  public static int daysBeforeMonth(int month) {
+    checkMonth(month);
+    return month <= 7 ? 31 * (month - 1) : 30 * (month - 1) + 6;
+  }
+
+  /**
+   * @param year Persian year
+   * @return epoch day of 1 Farvardin of {@code year}
+   */
+  public static long firstDayOfYear(int year) {
+    return PERSIAN_EPOCH_DAY + 365L * (year - 1) + Math.floorDiv(8L * year + 21, 33L);
+  }
+
+  /**
+   * Converts a Persian date to epoch day. Day and month are not validated, values out of range
+   * roll over to the neighbouring months like a lenient calendar does.
+   *
+   * @param year Persian year
+   * @param month Persian month, 1 to 12
+   * @param day day of month, 1 to 31
+   * @return the epoch day
+   */
+  public static long toEpochDay(int year, int month, int day) {
+    if (month < 1 || month > 12) {
+      year += Math.floorDiv(month - 1, 12);
+      month = Math.floorMod(month - 1, 12) + 1;
+    }
+    return firstDayOfYear(year) + daysBeforeMonth(month) + day - 1;
+  }
+
+  /**
+   * @param packed Persian date as {@code yyyyMMdd}
+   * @return the epoch day
+   */
+  public static long toEpochDay(int packed) {
+    return toEpochDay(year(packed), month(packed), day(packed));
+  }
+
+  /**
+   * Converts an epoch day to a packed Persian date.
+   *
+   * @param epochDay days since 1970-01-01
+   * @return Persian date as {@code yyyyMMdd}
+   */
+  public static int fromEpochDay(long epochDay) {
+    long days = epochDay - PERSIAN_EPOCH_DAY;
+    int year = (int) (1 + Math.floorDiv(33 * days + 3, 12053L));
+    int dayOfYear = (int) (epochDay - firstDayOfYear(year));
+    int month = dayOfYear < 216 ? dayOfYear / 31 + 1 : (dayOfYear - 6) / 30 + 1;
+    int day = dayOfYear - daysBeforeMonth(month) + 1;
+    return pack(year, month, day);
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return Persian year of the day
+   */
+  public static int yearOfEpochDay(long epochDay) {
+    return (int) (1 + Math.floorDiv(33 * (epochDay - PERSIAN_EPOCH_DAY) + 3, 12053L));
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return day of the Persian year, 1 for 1 Farvardin
+   */
+  public static int dayOfYear(long epochDay) {
+    return (int) (epochDay - firstDayOfYear(yearOfEpochDay(epochDay))) + 1;
+  }
+
+  public static int pack(int year, int month, int day) {
+    return year * 10000 + month * 100 + day;
+  }
+
+  public static int year(int packed) {
+    return packed / 10000;
+  }
+
+  public static int month(int packed) {
+    return packed / 100 % 100;
+  }
+
+  public static int day(int packed) {
+    return packed % 100;
+  }
+
+  /**
+   * Checks that the fields form an existing Persian date.
+   *
+   * @return true when month is 1 to 12 and day exists in that month
+   */
+  public static boolean isValid(int year, int month, int day) {
+    return month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth(year, month);
+  }
+
+  private static void checkMonth(int month) {
+    if (month < 1 || month > 12) {
+      throw new IllegalArgumentException("Invalid Persian month: " + month);
+    }
+  }
+}
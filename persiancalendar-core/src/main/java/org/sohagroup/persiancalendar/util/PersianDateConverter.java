@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.Constants.*;
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.text.ParseException;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * ICU-free counterpart of {@code DateConverter}, with the same methods and results for the
+ * patterns supported by {@link PersianDateFormatter}. Conversions are computed arithmetically, so
+ * instances are immutable, thread-safe and need no locking.
+ *
+ * <p>Like {@code DateConverter}, instants are formatted and parsed in the zone of the {@link
+ * DateConverterConfig}, {@value org.sohagroup.persiancalendar.Constants#ASIA_TEHRAN_ZONE} by
+ * default, and {@code LocalDate} and {@code LocalDateTime} inputs are taken as wall clock times of
+ * that zone. Its offsets are looked up in a precomputed {@code ZoneOffsetTable}.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianDateConverter {
+  private final PersianDateFormatter dateFormat;
+  private final PersianDateFormatter datetimeFormat;
+  private final ZoneId zone;
+  private final ZoneOffsetTable offsets;
+  private final PersianDateString.EpochFormat lazyDateFormat;
+  private final PersianDateString.EpochFormat lazyDatetimeFormat;
+
+  /**
+   * @param config the formats to use
+   * @throws IllegalArgumentException if a format is not supported by {@link PersianDateFormatter}
+   */
+  public PersianDateConverter(DateConverterConfig config) {
+    Objects.requireNonNull(config, "config param must not be null");
+    this.dateFormat = PersianDateFormatter.ofPattern(config.getDateFormat());
+    this.datetimeFormat = PersianDateFormatter.ofPattern(config.getDatetimeFormat());
+    this.zone = config.getZone();
+    this.offsets = ZoneOffsetTable.of(zone);
+    this.lazyDateFormat = PersianDateString.formatIn(dateFormat, zone);
+    this.lazyDatetimeFormat = PersianDateString.formatIn(datetimeFormat, zone);
+  }
+
+  public PersianDateConverter() {
+    this.dateFormat = PersianDateFormatter.ofPattern(DEFAULT_PERSIAN_DATE_FORMAT);
+    this.datetimeFormat = PersianDateFormatter.ofPattern(DEFAULT_PERSIAN_DATE_TIME_FORMAT);
+    this.zone = ZoneId.of(ASIA_TEHRAN_ZONE);
+    this.offsets = ZoneOffsetTable.of(zone);
+    this.lazyDateFormat = PersianDateString.formatIn(dateFormat, zone);
+    this.lazyDatetimeFormat = PersianDateString.formatIn(datetimeFormat, zone);
+  }
+
+  public PersianDateFormatter getDateFormatter() {
+    return dateFormat;
+  }
+
+  public PersianDateFormatter getDateTimeFormatter() {
+    return datetimeFormat;
+  }
+
+  /** @return the zone values are formatted and parsed in */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * Get Current Date and Time of Persian Calendar in Default Format as defined via datetimeFormat
+   *
+   * @return persian date in format yyyy/MM/dd'T'HH:mm:ss
+   */
+  public String getCurrentDateTime() {
+    return datetimeFormat.format(offsets.toLocalMillis(System.currentTimeMillis()));
+  }
+
+  /**
+   * Get Current Date of Persian Calendar in Default Format as defined via dateFormat
+   *
+   * @return persian date in format yyyy/MM/dd
+   */
+  public String getCurrentDate() {
+    return dateFormat.format(offsets.toLocalMillis(System.currentTimeMillis()));
+  }
+
+  /**
+   * Formats an instant with the date format.
+   *
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @return Persian date in format yyyy/MM/dd or any format specified in dateFormat
+   */
+  public String formatDate(long epochMillis) {
+    return dateFormat.format(offsets.toLocalMillis(epochMillis));
+  }
+
+  /**
+   * Formats an instant with the date-time format.
+   *
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss or any format specified in datetimeFormat
+   */
+  public String formatDateTime(long epochMillis) {
+    return datetimeFormat.format(offsets.toLocalMillis(epochMillis));
+  }
+
+  /**
+   * Same as {@link #formatDate(long)}, formatted when the result is first read.
+   *
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @return Persian date in format yyyy/MM/dd or any format specified in dateFormat
+   */
+  public PersianDateString toLazyPersianDate(long epochMillis) {
+    return PersianDateString.of(epochMillis, lazyDateFormat);
+  }
+
+  /**
+   * Same as {@link #formatDateTime(long)}, formatted when the result is first read.
+   *
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss or any format specified in datetimeFormat
+   */
+  public PersianDateString toLazyPersianDateTime(long epochMillis) {
+    return PersianDateString.of(epochMillis, lazyDatetimeFormat);
+  }
+
+  /**
+   * Same as {@link #toPersianDate(Instant)}, formatted when the result is first read.
+   *
+   * @param instant the value to convert
+   * @return Persian date in format yyyy/MM/dd or any format specified in dateFormat
+   */
+  public PersianDateString toLazyPersianDate(Instant instant) {
+    Objects.requireNonNull(instant, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    return toLazyPersianDate(instant.toEpochMilli());
+  }
+
+  /**
+   * Same as {@link #toPersianDateTime(Instant)}, formatted when the result is first read.
+   *
+   * @param instant the value to convert
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss or any format specified in datetimeFormat
+   */
+  public PersianDateString toLazyPersianDateTime(Instant instant) {
+    Objects.requireNonNull(instant, "dateTimeWithZone param must not be null");
+    return toLazyPersianDateTime(instant.toEpochMilli());
+  }
+
+  /**
+   * This method convert the input Date and Time to Persian Calendar with default format yyyy/MM/dd
+   *
+   * @param dateTimeNoZone get Instant as input, with no-zone, calculated at UTC zone time
+   * @return Persian date in format yyyy/MM/dd
+   * @exception NullPointerException if dateTimeNoZone is null
+   */
+  public String toPersianDate(Instant dateTimeNoZone) {
+    Objects.requireNonNull(dateTimeNoZone, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDate(dateTimeNoZone.toEpochMilli());
+  }
+
+  /**
+   * This method convert the input Date and Time to Persian Calendar with default format yyyy/MM/dd
+   *
+   * @param dateTimeNoZone input in {@link ZonedDateTime} in order to cnvert to persian
+   * @return Persian date in format yyyy/MM/dd
+   */
+  public String toPersianDate(ZonedDateTime dateTimeNoZone) {
+    Objects.requireNonNull(dateTimeNoZone, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    return toPersianDate(dateTimeNoZone.toInstant());
+  }
+
+  /**
+   * This method convert the input Date and Time to Persian Calendar with default format
+   * yyyy/MM/dd'T'HH:mm:ss
+   *
+   * @param dateTimeWithZone the input value base on {@link Instant}
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss
+   */
+  public String toPersianDateTime(Instant dateTimeWithZone) {
+    Objects.requireNonNull(dateTimeWithZone, "dateTimeWithZone param must not be null");
+    return formatDateTime(dateTimeWithZone.toEpochMilli());
+  }
+
+  /**
+   * Same as {@link #toPersianDateTime(Instant)}, kept for parity with {@code DateConverter}.
+   *
+   * @param dateTimeWithZone the input value base on {@link Instant}
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss
+   */
+  public String toPersianDateTimeWithZone(Instant dateTimeWithZone) {
+    return toPersianDateTime(dateTimeWithZone);
+  }
+
+  /**
+   * Formats an instant with the date format in another zone than the configured one. The offsets
+   * of the zone are cached, so calls with a handful of zones stay cheap.
+   *
+   * @param dateTimeWithZone the input value base on {@link Instant}
+   * @param zoneId the zone of the result
+   * @return Persian date in format yyyy/MM/dd
+   */
+  public String toPersianDate(Instant dateTimeWithZone, ZoneId zoneId) {
+    Objects.requireNonNull(dateTimeWithZone, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    Objects.requireNonNull(zoneId, "zoneId param must not be null");
+    return dateFormat.format(toLocalMillis(zoneId, dateTimeWithZone.toEpochMilli()));
+  }
+
+  /**
+   * Formats an instant with the date-time format in another zone than the configured one.
+   *
+   * @param dateTimeWithZone the input value base on {@link Instant}
+   * @param zoneId the zone of the result
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss
+   */
+  public String toPersianDateTime(Instant dateTimeWithZone, ZoneId zoneId) {
+    Objects.requireNonNull(dateTimeWithZone, "dateTimeWithZone param must not be null");
+    Objects.requireNonNull(zoneId, "zoneId param must not be null");
+    return datetimeFormat.format(toLocalMillis(zoneId, dateTimeWithZone.toEpochMilli()));
+  }
+
+  /**
+   * Convert the LocalDateTime, taken in the configured zone, to its Persian Equivalent, for example
+   * 2023/03/21T00:00:00 to 1402/01/01T00:00:00
+   *
+   * @param localDateTime in {@link LocalDateTime} the input as localDateTime
+   * @return Persian Date of input
+   */
+  public String toPersianDateTimeNoZone(LocalDateTime localDateTime) {
+    Objects.requireNonNull(localDateTime, LOCALDATE_TIME_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDateTime(fromLocal(localMillis(localDateTime)));
+  }
+
+  public String toPersianDateTime(LocalDate localDate) {
+    Objects.requireNonNull(localDate, LOCALDATE_TIME_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDateTime(fromLocal(localDate.toEpochDay() * MILLIS_PER_DAY));
+  }
+
+  public String toPersianDate(LocalDate localDate) {
+    Objects.requireNonNull(localDate, LOCALDATE_TIME_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDate(fromLocal(localDate.toEpochDay() * MILLIS_PER_DAY));
+  }
+
+  public String toPersianLocalDate(LocalDate localDate) {
+    Objects.requireNonNull(localDate, LOCALDATE_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDate(fromLocal(localDate.toEpochDay() * MILLIS_PER_DAY));
+  }
+
+  public String toPersianLocalDateTime(LocalDate localDate) {
+    Objects.requireNonNull(localDate, LOCALDATE_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDateTime(fromLocal(localDate.toEpochDay() * MILLIS_PER_DAY));
+  }
+
+  public String toPersianLocalDateTime(LocalDateTime localDateTime) {
+    Objects.requireNonNull(localDateTime, LOCALDATE_MUST_NOT_BE_NULL_MESSAGE);
+    return formatDateTime(fromLocal(localMillis(localDateTime)));
+  }
+
+  /**
+   * This method convert the Date, get from input as {@link String} and return persian equivalent
+   *
+   * @param gregorianDate date as String like 2023-11-01 (ISO_LOCAL_DATE)
+   * @return Persian equivalent of date as format of yyyy/MM/dd
+   */
+  public String toPersianDate(String gregorianDate) {
+    return toPersianDate(parseIso(gregorianDate, DateTimeFormatter.ISO_LOCAL_DATE));
+  }
+
+  /**
+   * This method convert the Date part of an ISO date-time and return persian equivalent of its
+   * start of day, like {@code DateConverter} does
+   *
+   * @param gregorianDateTime date as String like 2023-11-01T10:00:00 (ISO_LOCAL_DATE_TIME)
+   * @return Persian equivalent of date as format of yyyy/MM/dd'T'HH:mm:ss
+   */
+  public String toPersianDateTime(String gregorianDateTime) {
+    return toPersianLocalDateTime(
+        parseIso(gregorianDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+  }
+
+  /**
+   * @param gregorianDateTime date as String like 2023-11-01 (ISO_DATE)
+   * @return Persian equivalent of start of the day as format of yyyy/MM/dd'T'HH:mm:ss
+   */
+  public String toPersianDateTimeStartOfDay(String gregorianDateTime) {
+    return toPersianLocalDateTime(parseIso(gregorianDateTime, DateTimeFormatter.ISO_DATE));
+  }
+
+  /**
+   * @param persianDate as reference to minus days before it
+   * @param days as {@link Long} to minus start of current day
+   * @return Persian date formatted by dateFormat calculated persianDate-days
+   */
+  public String minusDays(String persianDate, long days) {
+    return plusDays(persianDate, -days);
+  }
+
+  /**
+   * @param persianDate as reference to plus days after it
+   * @param days as {@link Long} to plus start of current day
+   * @return Persian date formatted by dateFormat calculated persianDate+days
+   */
+  public String plusDays(String persianDate, long days) {
+    long localMillis = parse(dateFormat, persianDate);
+    return dateFormat.format(Math.addExact(localMillis, Math.multiplyExact(days, 86_400_000L)));
+  }
+
+  /**
+   * @param startPersianDate as reference to check the date from with dateFormat
+   * @param endPersianDate as reference to check the date to with dateFormat
+   * @param unit as Unit to fetch Difference which defined in {@link ChronoUnit}
+   * @return amount of unit between startPersianDate and endPersianDate
+   */
+  public Long localDateDuration(String startPersianDate, String endPersianDate, ChronoUnit unit) {
+    return duration(dateFormat, startPersianDate, endPersianDate, unit);
+  }
+
+  /**
+   * @param startPersianDate as reference to check the date from with datetimeFormat
+   * @param endPersianDate as reference to check the date to with datetimeFormat
+   * @param unit as Unit to fetch Difference which defined in {@link ChronoUnit}
+   * @return amount of unit between startPersianDate and endPersianDate
+   */
+  public Long localDateTimeDuration(
+      String startPersianDate, String endPersianDate, ChronoUnit unit) {
+    return duration(datetimeFormat, startPersianDate, endPersianDate, unit);
+  }
+
+  /**
+   * Converts a Persian date string, in dateFormat, to its Gregorian counterpart.
+   *
+   * @param persianDate The Persian date string to be converted
+   * @param zoneId The {@link ZoneId} of the result
+   * @return A {@link LocalDate} representing the equivalent Gregorian date.
+   */
+  public LocalDate toGregorianDate(String persianDate, ZoneId zoneId) {
+    Objects.requireNonNull(zoneId, "zoneId param must not be null");
+    long epochMillis = offsets.toEpochMillis(parse(dateFormat, persianDate), true);
+    return LocalDate.ofEpochDay(Math.floorDiv(toLocalMillis(zoneId, epochMillis), MILLIS_PER_DAY));
+  }
+
+  /**
+   * Converts a Persian date and time string, in datetimeFormat, to its Gregorian counterpart.
+   *
+   * @param persianDate The Persian date and time string to be converted
+   * @param zoneId The {@link ZoneId} of the result
+   * @return A {@link LocalDateTime} representing the Gregorian counterpart
+   */
+  public LocalDateTime toGregorianDateTime(String persianDate, ZoneId zoneId) {
+    Objects.requireNonNull(persianDate, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    Objects.requireNonNull(zoneId, "zoneId param must not be null");
+    long epochMillis = offsets.toEpochMillis(parse(datetimeFormat, persianDate), true);
+    long localMillis = toLocalMillis(zoneId, epochMillis);
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(localMillis, 1000L),
+        (int) Math.floorMod(localMillis, 1000L) * 1_000_000,
+        ZoneOffset.UTC);
+  }
+
+  private Long duration(
+      PersianDateFormatter format, String startPersianDate, String endPersianDate, ChronoUnit unit) {
+    long start;
+    long end;
+    try {
+      start = offsets.toEpochMillis(format.parse(startPersianDate), true);
+      end = offsets.toEpochMillis(format.parse(endPersianDate), true);
+    } catch (ParseException | NullPointerException e) {
+      throw new IllegalArgumentException(
+          "Date as specified is not parsable either " + startPersianDate + " or " + endPersianDate);
+    }
+    if (unit.isTimeBased()) {
+      // ZonedDateTime.until measures time units on the instant time-line
+      long millis = end - start;
+      return unit.compareTo(ChronoUnit.MILLIS) <= 0
+          ? Math.multiplyExact(millis, 1_000_000L / unit.getDuration().toNanos())
+          : millis / unit.getDuration().toMillis();
+    }
+    if (unit == ChronoUnit.DAYS || unit == ChronoUnit.WEEKS) {
+      // and date units on the local time-line, counting only complete days
+      long startLocal = offsets.toLocalMillis(start);
+      long endLocal = offsets.toLocalMillis(end);
+      long startDay = Math.floorDiv(startLocal, MILLIS_PER_DAY);
+      long endDay = Math.floorDiv(endLocal, MILLIS_PER_DAY);
+      long startTime = Math.floorMod(startLocal, MILLIS_PER_DAY);
+      long endTime = Math.floorMod(endLocal, MILLIS_PER_DAY);
+      if (endDay > startDay && endTime < startTime) {
+        endDay--;
+      } else if (endDay < startDay && endTime > startTime) {
+        endDay++;
+      }
+      long days = endDay - startDay;
+      return unit == ChronoUnit.DAYS ? days : days / 7;
+    }
+    ZonedDateTime startZonedDateTime = Instant.ofEpochMilli(start).atZone(zone);
+    ZonedDateTime endZonedDateTime = Instant.ofEpochMilli(end).atZone(zone);
+    return unit.between(startZonedDateTime, endZonedDateTime);
+  }
+
+  private static long parse(PersianDateFormatter format, String persianDate) {
+    try {
+      return format.parse(persianDate);
+    } catch (ParseException | NullPointerException e) {
+      throw new IllegalArgumentException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + persianDate);
+    }
+  }
+
+  private static LocalDate parseIso(String gregorianDate, DateTimeFormatter formatter) {
+    if (gregorianDate == null || gregorianDate.trim().isEmpty()) {
+      throw new IllegalArgumentException(INPUT_DATE_NUT_NULL_MESSAGE);
+    }
+    try {
+      return LocalDate.parse(gregorianDate, formatter);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + gregorianDate, e);
+    }
+  }
+
+  private static long localMillis(LocalDateTime localDateTime) {
+    return localDateTime.toLocalDate().toEpochDay() * MILLIS_PER_DAY
+        + localDateTime.toLocalTime().toNanoOfDay() / 1_000_000L;
+  }
+
+  /** Shifts an instant to the wall clock of a zone. */
+  static long toLocalMillis(ZoneId zone, long epochMillis) {
+    return ZoneOffsetTable.of(zone).toLocalMillis(epochMillis);
+  }
+
+  /** Resolves a wall clock time of a zone, taking the later offset in an overlap like ICU. */
+  static long toEpochMillis(ZoneId zone, long localMillis) {
+    return ZoneOffsetTable.of(zone).toEpochMillis(localMillis, true);
+  }
+
+  /** Resolves a wall clock time like {@link LocalDateTime#atZone}, the earlier offset wins. */
+  long fromLocal(long localMillis) {
+    return offsets.toEpochMillis(localMillis, false);
+  }
+}
@@ -0,0 +1,595 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Formats and parses Persian dates with a subset of the ICU {@code SimpleDateFormat} pattern
+ * syntax, without ICU. Supported letters are {@code y M d D E a H k K h m s S}, with {@code M}
+ * numeric only (one or two letters), quoted literals and any other non letter character. Output
+ * and lenient parsing follow ICU with {@code Locale.US} symbols, as used by {@code DateConverter}.
+ *
+ * <p>The formatter works on local epoch millis: milliseconds since 1970-01-01T00:00 on the wall
+ * clock of the zone at hand, that is {@code epochMillis + offsetMillis}. It is immutable and
+ * thread-safe.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianDateFormatter {
+  static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private static final String SUPPORTED_LETTERS = "yMdDEaHkKhmsS";
+  private static final String[] SHORT_DAY_NAMES = {"Sat", "Sun", "Mon", "Tue", "Wed", "Thu", "Fri"};
+  private static final String[] DAY_NAMES = {
+    "Saturday", "Sunday", "Monday", "Tuesday", "Wednesday", "Thursday", "Friday"
+  };
+  private static final String[] AM_PM = {"AM", "PM"};
+
+  private final String pattern;
+  /** Pattern letter of each element, or 0 for a literal. */
+  private final char[] letters;
+  private final int[] counts;
+  private final String[] literals;
+  private final int estimatedLength;
+  private final int twoDigitYearStart;
+  private final boolean fixedWidthTime;
+
+  private PersianDateFormatter(String pattern) {
+    this.pattern = pattern;
+    List<Object> elements = new ArrayList<>();
+    int length = pattern.length();
+    StringBuilder literal = new StringBuilder();
+    int i = 0;
+    while (i < length) {
+      char c = pattern.charAt(i);
+      if (c == '\'') {
+        if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+          literal.append('\'');
+          i += 2;
+          continue;
+        }
+        int end = i + 1;
+        while (true) {
+          if (end >= length) {
+            throw new IllegalArgumentException("Unterminated quote in pattern: " + pattern);
+          }
+          if (pattern.charAt(end) == '\'') {
+            if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+              literal.append('\'');
+              end += 2;
+              continue;
+            }
+            break;
+          }
+          literal.append(pattern.charAt(end++));
+        }
+        i = end + 1;
+      } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+        int end = i;
+        while (end < length && pattern.charAt(end) == c) {
+          end++;
+        }
+        int count = end - i;
+        if (SUPPORTED_LETTERS.indexOf(c) < 0 || (c == 'M' && count > 2) || (c == 'E' && count > 4)) {
+          throw new IllegalArgumentException(UNSUPPORTED_PATTERN_MESSAGE + pattern);
+        }
+        if (literal.length() > 0) {
+          elements.add(literal.toString());
+          literal.setLength(0);
+        }
+        elements.add(new int[] {c, count});
+        i = end;
+      } else {
+        literal.append(c);
+        i++;
+      }
+    }
+    if (literal.length() > 0) {
+      elements.add(literal.toString());
+    }
+    int size = elements.size();
+    this.letters = new char[size];
+    this.counts = new int[size];
+    this.literals = new String[size];
+    int estimate = 0;
+    for (int e = 0; e < size; e++) {
+      Object element = elements.get(e);
+      if (element instanceof String) {
+        literals[e] = (String) element;
+        estimate += literals[e].length();
+      } else {
+        int[] field = (int[]) element;
+        letters[e] = (char) field[0];
+        counts[e] = field[1];
+        estimate += letters[e] == 'E' ? 9 : Math.max(field[1], 2);
+      }
+    }
+    this.estimatedLength = estimate;
+    boolean fixed = true;
+    for (int e = 0; e < size; e++) {
+      if (isTimeField(letters[e]) && letters[e] != 'a' && letters[e] != 'S' && counts[e] < 2) {
+        fixed = false;
+      }
+    }
+    this.fixedWidthTime = fixed;
+    this.twoDigitYearStart =
+        PersianCalendarMath.yearOfEpochDay(
+                Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY))
+            - 80;
+  }
+
+  /**
+   * Compiles a pattern.
+   *
+   * @param pattern pattern in ICU {@code SimpleDateFormat} syntax
+   * @return the formatter
+   * @throws IllegalArgumentException if the pattern uses a letter this formatter does not support,
+   *     in which case the ICU backed {@code DateConverter} has to be used
+   */
+  public static PersianDateFormatter ofPattern(String pattern) {
+    Objects.requireNonNull(pattern, "pattern param must not be null");
+    return new PersianDateFormatter(pattern);
+  }
+
+  /**
+   * @param pattern pattern in ICU {@code SimpleDateFormat} syntax
+   * @return true if {@link #ofPattern(String)} accepts the pattern
+   */
+  public static boolean isSupported(String pattern) {
+    try {
+      ofPattern(pattern);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  /** @return whether the pattern contains a time of day field */
+  public boolean hasTimeFields() {
+    for (char letter : letters) {
+      if (isTimeField(letter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isTimeField(char letter) {
+    return letter != 0 && "aHkKhmsS".indexOf(letter) >= 0;
+  }
+
+  /**
+   * Whether every time of day field always has the same width, so the output of one day can be
+   * used as a template where only the time fields are overwritten.
+   */
+  boolean hasFixedWidthTimeFields() {
+    return fixedWidthTime;
+  }
+
+  /** @return number of time of day fields in the pattern */
+  int timeFieldCount() {
+    int count = 0;
+    for (char letter : letters) {
+      if (isTimeField(letter)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Formats like {@link #formatTo(long, StringBuilder)} and records where each time of day field
+   * starts in {@code out}, in pattern order.
+   */
+  void formatTemplate(long localMillis, StringBuilder out, int[] timeFieldPositions) {
+    long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+    int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+    int packed = PersianCalendarMath.fromEpochDay(epochDay);
+    int field = 0;
+    for (int e = 0; e < letters.length; e++) {
+      char letter = letters[e];
+      if (letter == 0) {
+        out.append(literals[e]);
+      } else {
+        if (isTimeField(letter)) {
+          timeFieldPositions[field++] = out.length();
+        }
+        formatField(letter, counts[e], epochDay, packed, millisOfDay, out);
+      }
+    }
+  }
+
+  /**
+   * Overwrites the time of day fields of a template made by {@link #formatTemplate}, which is only
+   * valid when {@link #hasFixedWidthTimeFields()}.
+   */
+  void writeTimeFields(int millisOfDay, char[] template, int[] timeFieldPositions) {
+    int hour = millisOfDay / 3_600_000;
+    int field = 0;
+    for (int e = 0; e < letters.length; e++) {
+      char letter = letters[e];
+      if (!isTimeField(letter)) {
+        continue;
+      }
+      int pos = timeFieldPositions[field++];
+      int count = counts[e];
+      switch (letter) {
+        case 'a':
+          template[pos] = hour < 12 ? 'A' : 'P';
+          break;
+        case 'H':
+          writeDigits(hour, count, template, pos);
+          break;
+        case 'k':
+          writeDigits(hour == 0 ? 24 : hour, count, template, pos);
+          break;
+        case 'K':
+          writeDigits(hour % 12, count, template, pos);
+          break;
+        case 'h':
+          writeDigits(hour % 12 == 0 ? 12 : hour % 12, count, template, pos);
+          break;
+        case 'm':
+          writeDigits(millisOfDay / 60_000 % 60, count, template, pos);
+          break;
+        case 's':
+          writeDigits(millisOfDay / 1000 % 60, count, template, pos);
+          break;
+        default:
+          int millis = millisOfDay % 1000;
+          if (count >= 3) {
+            writeDigits(millis, 3, template, pos);
+          } else {
+            writeDigits(count == 1 ? millis / 100 : millis / 10, count, template, pos);
+          }
+          break;
+      }
+    }
+  }
+
+  private static void writeDigits(int value, int width, char[] dst, int pos) {
+    for (int i = pos + width - 1; i >= pos; i--) {
+      dst[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+  /**
+   * Formats a point on the local time-line.
+   *
+   * @param localMillis local epoch millis
+   * @return the Persian date
+   */
+  public String format(long localMillis) {
+    StringBuilder out = new StringBuilder(estimatedLength);
+    formatTo(localMillis, out);
+    return out.toString();
+  }
+
+  /**
+   * Formats a point on the local time-line to a {@link StringBuilder}, without creating any
+   * object.
+   *
+   * @param localMillis local epoch millis
+   * @param out destination
+   */
+  public void formatTo(long localMillis, StringBuilder out) {
+    long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+    int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+    int packed = PersianCalendarMath.fromEpochDay(epochDay);
+    for (int e = 0; e < letters.length; e++) {
+      char letter = letters[e];
+      if (letter == 0) {
+        out.append(literals[e]);
+      } else {
+        formatField(letter, counts[e], epochDay, packed, millisOfDay, out);
+      }
+    }
+  }
+
+  /**
+   * Formats a point on the local time-line to any {@link Appendable}.
+   *
+   * @param localMillis local epoch millis
+   * @param out destination
+   * @throws IOException if {@code out} fails
+   */
+  public void formatTo(long localMillis, Appendable out) throws IOException {
+    if (out instanceof StringBuilder) {
+      formatTo(localMillis, (StringBuilder) out);
+    } else {
+      out.append(format(localMillis));
+    }
+  }
+
+  private void formatField(
+      char letter, int count, long epochDay, int packed, int millisOfDay, StringBuilder out) {
+    int hour = millisOfDay / 3_600_000;
+    switch (letter) {
+      case 'y':
+        int year = PersianCalendarMath.year(packed);
+        if (count == 2) {
+          appendNumber(Math.floorMod(year, 100), 2, out);
+        } else {
+          if (year < 0) {
+            out.append('-');
+            year = -year;
+          }
+          appendNumber(year, count, out);
+        }
+        break;
+      case 'M':
+        appendNumber(PersianCalendarMath.month(packed), count, out);
+        break;
+      case 'd':
+        appendNumber(PersianCalendarMath.day(packed), count, out);
+        break;
+      case 'D':
+        appendNumber(PersianCalendarMath.dayOfYear(epochDay), count, out);
+        break;
+      case 'E':
+        int dayOfWeek = PersianWeekFields.dayOfWeek(epochDay) - 1;
+        out.append(count == 4 ? DAY_NAMES[dayOfWeek] : SHORT_DAY_NAMES[dayOfWeek]);
+        break;
+      case 'a':
+        out.append(AM_PM[hour / 12]);
+        break;
+      case 'H':
+        appendNumber(hour, count, out);
+        break;
+      case 'k':
+        appendNumber(hour == 0 ? 24 : hour, count, out);
+        break;
+      case 'K':
+        appendNumber(hour % 12, count, out);
+        break;
+      case 'h':
+        appendNumber(hour % 12 == 0 ? 12 : hour % 12, count, out);
+        break;
+      case 'm':
+        appendNumber(millisOfDay / 60_000 % 60, count, out);
+        break;
+      case 's':
+        appendNumber(millisOfDay / 1000 % 60, count, out);
+        break;
+      case 'S':
+        int millis = millisOfDay % 1000;
+        if (count >= 3) {
+          appendNumber(millis, 3, out);
+          for (int i = 3; i < count; i++) {
+            out.append('0');
+          }
+        } else {
+          appendNumber(count == 1 ? millis / 100 : millis / 10, count, out);
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unexpected pattern letter " + letter);
+    }
+  }
+
+  private static void appendNumber(int value, int minDigits, StringBuilder out) {
+    int digits = value < 10 ? 1 : value < 100 ? 2 : value < 1000 ? 3 : value < 10000 ? 4 : 10;
+    if (digits == 10) {
+      digits = Integer.toString(value).length();
+    }
+    for (int i = digits; i < minDigits; i++) {
+      out.append('0');
+    }
+    out.append(value);
+  }
+
+  /**
+   * Parses a Persian date leniently, like ICU does: surrounding whitespace is ignored, a literal
+   * may be replaced by whitespace, numbers do not need leading zeros, out of range fields roll
+   * over and text after the last field is ignored.
+   *
+   * @param text the Persian date
+   * @return local epoch millis of the parsed value
+   * @throws ParseException if text does not match the pattern
+   */
+  public long parse(CharSequence text) throws ParseException {
+    Objects.requireNonNull(text, INPUT_DATE_NUT_NULL_MESSAGE);
+    int length = text.length();
+    int pos = 0;
+    int year = 1970 - 621;
+    int month = 1;
+    int day = 1;
+    int dayOfYear = -1;
+    int hour = 0;
+    int hour12 = -1;
+    int pm = -1;
+    int minute = 0;
+    int second = 0;
+    int millis = 0;
+    for (int e = 0; e < letters.length; e++) {
+      char letter = letters[e];
+      if (letter == 0) {
+        pos = parseLiteral(text, pos, literals[e]);
+        continue;
+      }
+      while (pos < length && Character.isWhitespace(text.charAt(pos))) {
+        pos++;
+      }
+      if (letter == 'E') {
+        pos = parseName(text, pos, counts[e] == 4 ? DAY_NAMES : SHORT_DAY_NAMES);
+        continue;
+      }
+      if (letter == 'a') {
+        int index = nameIndex(text, pos, AM_PM);
+        if (index < 0) {
+          throw new ParseException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + text, pos);
+        }
+        pm = index;
+        pos += 2;
+        continue;
+      }
+      boolean abutting = e + 1 < letters.length && isNumeric(letters[e + 1]);
+      int maxDigits = abutting ? counts[e] : 10;
+      int start = pos;
+      long value = 0;
+      while (pos < length && pos - start < maxDigits) {
+        char c = text.charAt(pos);
+        if (c < '0' || c > '9') {
+          break;
+        }
+        value = value * 10 + (c - '0');
+        pos++;
+      }
+      int digits = pos - start;
+      if (digits == 0 || value > Integer.MAX_VALUE) {
+        throw new ParseException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + text, start);
+      }
+      int v = (int) value;
+      switch (letter) {
+        case 'y':
+          if (counts[e] == 2 && digits == 2) {
+            int century = twoDigitYearStart - Math.floorMod(twoDigitYearStart, 100);
+            v += century;
+            if (v < twoDigitYearStart) {
+              v += 100;
+            }
+          }
+          year = v;
+          break;
+        case 'M':
+          month = v;
+          break;
+        case 'd':
+          day = v;
+          break;
+        case 'D':
+          dayOfYear = v;
+          break;
+        case 'H':
+          hour = v;
+          break;
+        case 'k':
+          hour = v == 24 ? 0 : v;
+          break;
+        case 'K':
+          hour12 = v;
+          break;
+        case 'h':
+          hour12 = v == 12 ? 0 : v;
+          break;
+        case 'm':
+          minute = v;
+          break;
+        case 's':
+          second = v;
+          break;
+        case 'S':
+          int scaled = v;
+          for (int i = digits; i < 3; i++) {
+            scaled *= 10;
+          }
+          for (int i = 3; i < digits; i++) {
+            scaled /= 10;
+          }
+          millis = scaled;
+          break;
+        default:
+          throw new IllegalStateException("Unexpected pattern letter " + letter);
+      }
+    }
+    if (hour12 >= 0) {
+      hour = hour12 + (pm == 1 ? 12 : 0);
+    } else if (pm == 1 && hour < 12) {
+      hour += 12;
+    }
+    long epochDay =
+        dayOfYear >= 0
+            ? PersianCalendarMath.firstDayOfYear(year) + dayOfYear - 1
+            : PersianCalendarMath.toEpochDay(year, month, day);
+    return epochDay * MILLIS_PER_DAY
+        + hour * 3_600_000L
+        + minute * 60_000L
+        + second * 1000L
+        + millis;
+  }
+
+  private int parseLiteral(CharSequence text, int pos, String literal) throws ParseException {
+    int length = text.length();
+    for (int i = 0; i < literal.length(); i++) {
+      char expected = literal.charAt(i);
+      if (Character.isWhitespace(expected)) {
+        while (pos < length && Character.isWhitespace(text.charAt(pos))) {
+          pos++;
+        }
+        continue;
+      }
+      if (pos < length && text.charAt(pos) == expected) {
+        pos++;
+        continue;
+      }
+      if (pos < length && Character.isWhitespace(text.charAt(pos))) {
+        while (pos < length && Character.isWhitespace(text.charAt(pos))) {
+          pos++;
+        }
+        continue;
+      }
+      throw new ParseException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + text, pos);
+    }
+    return pos;
+  }
+
+  private static int parseName(CharSequence text, int pos, String[] names)
+      throws ParseException {
+    int index = nameIndex(text, pos, names);
+    if (index < 0) {
+      throw new ParseException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + text, pos);
+    }
+    return pos + names[index].length();
+  }
+
+  private static int nameIndex(CharSequence text, int pos, String[] names) {
+    for (int n = 0; n < names.length; n++) {
+      String name = names[n];
+      if (pos + name.length() <= text.length()) {
+        boolean match = true;
+        for (int i = 0; i < name.length() && match; i++) {
+          match = Character.toLowerCase(text.charAt(pos + i)) == Character.toLowerCase(name.charAt(i));
+        }
+        if (match) {
+          return n;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isNumeric(char letter) {
+    return letter != 0 && letter != 'E' && letter != 'a';
+  }
+
+  @Override
+  public String toString() {
+    return "PersianDateFormatter{" + "pattern='" + pattern + '\'' + '}';
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * A Persian date or date-time that is formatted when it is first read. It holds the instant and
+ * the format only, so a value that is never rendered, for example a DTO field dropped by a filter
+ * or a log line that is sampled out, costs this object and no formatting. The first call to {@link
+ * #length()}, {@link #charAt(int)}, {@link #subSequence(int, int)} or {@link #toString()} formats
+ * the value and keeps the text; {@link #appendTo(Appendable)} writes it without keeping it.
+ *
+ * <p>Equality is that of the text, as for {@link String}, so it formats both values.
+ *
+ * <p>Instances are safe to share between threads, two threads may both format the value once.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianDateString implements CharSequence {
+  private final long epochMillis;
+  private final EpochFormat format;
+  private String text;
+
+  private PersianDateString(long epochMillis, EpochFormat format) {
+    this.epochMillis = epochMillis;
+    this.format = format;
+  }
+
+  /**
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @param format formats the value when it is read
+   * @return the unformatted value
+   */
+  public static PersianDateString of(long epochMillis, EpochFormat format) {
+    return new PersianDateString(
+        epochMillis, Objects.requireNonNull(format, "format param must not be null"));
+  }
+
+  /**
+   * @param formatter the pattern
+   * @param zone the zone of the text
+   * @return a format writing straight to the destination of {@link #appendTo(Appendable)}
+   */
+  public static EpochFormat formatIn(PersianDateFormatter formatter, ZoneId zone) {
+    return new ZonedFormat(
+        Objects.requireNonNull(formatter, "formatter param must not be null"),
+        Objects.requireNonNull(zone, "zone param must not be null"));
+  }
+
+  /** @return milliseconds since 1970-01-01T00:00:00Z */
+  public long getEpochMillis() {
+    return epochMillis;
+  }
+
+  /** @return whether the text has been formatted and kept */
+  public boolean isFormatted() {
+    return text != null;
+  }
+
+  /**
+   * Writes the text to {@code out}, formatting it into the destination when it has not been kept.
+   *
+   * @param out destination
+   * @param <A> type of the destination
+   * @return {@code out}
+   * @throws IOException if {@code out} fails
+   */
+  public <A extends Appendable> A appendTo(A out) throws IOException {
+    String kept = text;
+    if (kept != null) {
+      out.append(kept);
+    } else {
+      format.formatTo(epochMillis, out);
+    }
+    return out;
+  }
+
+  @Override
+  public int length() {
+    return toString().length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return toString().charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    String kept = text;
+    if (kept == null) {
+      kept = format.format(epochMillis);
+      text = kept;
+    }
+    return kept;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof PersianDateString && toString().equals(o.toString());
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+
+  /** Formats an instant, shared by all the values of a converter. */
+  @FunctionalInterface
+  public interface EpochFormat {
+
+    /**
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @return the text
+     */
+    String format(long epochMillis);
+
+    /**
+     * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+     * @param out destination
+     * @throws IOException if {@code out} fails
+     */
+    default void formatTo(long epochMillis, Appendable out) throws IOException {
+      out.append(format(epochMillis));
+    }
+  }
+
+  private static final class ZonedFormat implements EpochFormat {
+    private final PersianDateFormatter formatter;
+    private final ZoneId zone;
+
+    ZonedFormat(PersianDateFormatter formatter, ZoneId zone) {
+      this.formatter = formatter;
+      this.zone = zone;
+    }
+
+    @Override
+    public String format(long epochMillis) {
+      return formatter.format(PersianDateConverter.toLocalMillis(zone, epochMillis));
+    }
+
+    @Override
+    public void formatTo(long epochMillis, Appendable out) throws IOException {
+      formatter.formatTo(PersianDateConverter.toLocalMillis(zone, epochMillis), out);
+    }
+  }
+}
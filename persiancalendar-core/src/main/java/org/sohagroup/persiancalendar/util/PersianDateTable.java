@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Precomputed Persian dates of a range of days, in a file that is memory-mapped read-only. Every
+ * JVM of a host mapping the same file shares its pages through the page cache, so formatting a day
+ * is an offset lookup with no per-JVM warm-up nor heap for the table.
+ *
+ * <p>Generate a table once per pattern, for example for the years 1300 to 1500:
+ *
+ * <pre>
+ * java -cp persiancalendar-core.jar org.sohagroup.persiancalendar.util.PersianDateTable \
+ *     /var/lib/persian/dates.pdt yyyy/MM/dd 1300 1500
+ * </pre>
+ *
+ * <p>The file holds the pattern, the first epoch day, the UTF-8 text of every day, addressed by
+ * day when every text has the same length and by an offset array otherwise, and a reverse index of
+ * the days sorted by text. A mapped table is immutable and safe to share between threads; the
+ * mapping is released when the table is garbage collected.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianDateTable {
+  private static final int MAGIC = 0x50445431;
+  /** Permissions of a written table, so JVMs running as other users can map it too. */
+  private static final Set<PosixFilePermission> TABLE_PERMISSIONS =
+      PosixFilePermissions.fromString("rw-r--r--");
+
+  private final ByteBuffer buffer;
+  private final String pattern;
+  private final long firstEpochDay;
+  private final int count;
+  private final int width;
+  private final int offsetsStart;
+  private final int dataStart;
+  private final int indexStart;
+
+  private PersianDateTable(ByteBuffer buffer, Path file) throws IOException {
+    this.buffer = buffer;
+    try {
+      if (buffer.getInt(0) != MAGIC) {
+        throw new IOException("Not a Persian date table: " + file);
+      }
+      int patternLength = buffer.getInt(4);
+      byte[] patternBytes = new byte[patternLength];
+      for (int i = 0; i < patternLength; i++) {
+        patternBytes[i] = buffer.get(8 + i);
+      }
+      this.pattern = new String(patternBytes, StandardCharsets.UTF_8);
+      int p = 8 + patternLength;
+      this.firstEpochDay = buffer.getLong(p);
+      this.count = buffer.getInt(p + 8);
+      this.width = buffer.getInt(p + 12);
+      this.offsetsStart = p + 16;
+      int dataLengthAt = width > 0 ? offsetsStart : offsetsStart + (count + 1) * 4;
+      this.dataStart = dataLengthAt + 4;
+      this.indexStart = Math.addExact(dataStart, buffer.getInt(dataLengthAt));
+      if (count < 0 || (long) indexStart + count * 4L != buffer.limit()) {
+        throw new IOException("Truncated Persian date table: " + file);
+      }
+    } catch (IndexOutOfBoundsException | ArithmeticException | NegativeArraySizeException e) {
+      throw new IOException("Truncated Persian date table: " + file, e);
+    }
+  }
+
+  /**
+   * Maps a table generated by {@link #write}.
+   *
+   * @param file the table
+   * @return the mapped table
+   * @throws IOException if the file cannot be read or is not a table
+   */
+  public static PersianDateTable open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new PersianDateTable(buffer, file);
+    }
+  }
+
+  /**
+   * Formats every day of the Persian years {@code fromYear} to {@code toYear} and writes the table.
+   * The file is written next to {@code file} and moved over it once complete, so processes mapping
+   * the previous table keep their consistent copy. On POSIX file systems the table is made readable
+   * by every user, whatever the umask.
+   *
+   * @param file the table to create or replace
+   * @param format a date pattern, without time of day fields
+   * @param fromYear first Persian year
+   * @param toYear last Persian year, inclusive
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if the pattern has time fields or the range is empty
+   */
+  public static void write(Path file, PersianDateFormatter format, int fromYear, int toYear)
+      throws IOException {
+    Objects.requireNonNull(file, "file param must not be null");
+    Objects.requireNonNull(format, "format param must not be null");
+    if (format.hasTimeFields()) {
+      throw new IllegalArgumentException("Pattern has time fields: " + format.getPattern());
+    }
+    if (fromYear > toYear) {
+      throw new IllegalArgumentException("Empty range of years: " + fromYear + " to " + toYear);
+    }
+    long firstEpochDay = PersianCalendarMath.firstDayOfYear(fromYear);
+    int count = Math.toIntExact(PersianCalendarMath.firstDayOfYear(toYear + 1) - firstEpochDay);
+    byte[][] texts = new byte[count][];
+    int width = -1;
+    int dataLength = 0;
+    for (int i = 0; i < count; i++) {
+      String text = format.format((firstEpochDay + i) * MILLIS_PER_DAY);
+      texts[i] = text.getBytes(StandardCharsets.UTF_8);
+      width = width == -1 || width == texts[i].length ? texts[i].length : 0;
+      dataLength = Math.addExact(dataLength, texts[i].length);
+    }
+    Integer[] sorted = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      sorted[i] = i;
+    }
+    Comparator<Integer> byText = (a, b) -> compare(texts[a], texts[b]);
+    Arrays.sort(sorted, byText.thenComparing(Comparator.naturalOrder()));
+
+    Path directory = file.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream stream = Files.newOutputStream(temp);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+        byte[] patternBytes = format.getPattern().getBytes(StandardCharsets.UTF_8);
+        out.writeInt(MAGIC);
+        out.writeInt(patternBytes.length);
+        out.write(patternBytes);
+        out.writeLong(firstEpochDay);
+        out.writeInt(count);
+        out.writeInt(width);
+        if (width == 0) {
+          int offset = 0;
+          for (byte[] text : texts) {
+            out.writeInt(offset);
+            offset += text.length;
+          }
+          out.writeInt(offset);
+        }
+        out.writeInt(dataLength);
+        for (byte[] text : texts) {
+          out.write(text);
+        }
+        for (Integer day : sorted) {
+          out.writeInt(day);
+        }
+      }
+      // createTempFile makes the file owner-only, which move keeps
+      if (Files.getFileStore(temp).supportsFileAttributeView(PosixFileAttributeView.class)) {
+        Files.setPosixFilePermissions(temp, TABLE_PERMISSIONS);
+      }
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /** @return the pattern the table was generated with */
+  public String getPattern() {
+    return pattern;
+  }
+
+  /** @return first epoch day of the table */
+  public long getFirstEpochDay() {
+    return firstEpochDay;
+  }
+
+  /** @return last epoch day of the table, inclusive */
+  public long getLastEpochDay() {
+    return firstEpochDay + count - 1;
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return whether the table has the day
+   */
+  public boolean contains(long epochDay) {
+    return epochDay >= firstEpochDay && epochDay - firstEpochDay < count;
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01, the local day of an instant is {@code
+   *     Math.floorDiv(localMillis, 86_400_000L)}
+   * @return the Persian date
+   * @throws IllegalArgumentException if the day is out of the table
+   */
+  public String format(long epochDay) {
+    int day = day(epochDay);
+    int start = start(day);
+    int length = start(day + 1) - start;
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = buffer.get(dataStart + start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Appends the Persian date without creating any object when the pattern is ASCII only.
+   *
+   * @param epochDay days since 1970-01-01
+   * @param out destination
+   * @throws IllegalArgumentException if the day is out of the table
+   */
+  public void formatTo(long epochDay, StringBuilder out) {
+    int day = day(epochDay);
+    int start = dataStart + start(day);
+    int end = dataStart + start(day + 1);
+    for (int i = start; i < end; i++) {
+      if (buffer.get(i) < 0) {
+        out.append(format(epochDay));
+        return;
+      }
+    }
+    for (int i = start; i < end; i++) {
+      out.append((char) buffer.get(i));
+    }
+  }
+
+  /**
+   * Finds the day of a text exactly as formatted by the table, use {@link
+   * PersianDateFormatter#parse} for lenient parsing. When the pattern gives several days the same
+   * text, for example without a year field, any of them is returned.
+   *
+   * @param text the Persian date
+   * @return days since 1970-01-01
+   * @throws ParseException if the text is not in the table
+   */
+  public long parse(CharSequence text) throws ParseException {
+    Objects.requireNonNull(text, "text param must not be null");
+    byte[] key = text.toString().getBytes(StandardCharsets.UTF_8);
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int day = buffer.getInt(indexStart + middle * 4);
+      int comparison = compareAt(day, key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return firstEpochDay + day;
+      }
+    }
+    throw new ParseException("Unparseable date: " + text, 0);
+  }
+
+  private int day(long epochDay) {
+    if (!contains(epochDay)) {
+      throw new IllegalArgumentException(
+          "Day " + epochDay + " is out of the table " + firstEpochDay + " to " + getLastEpochDay());
+    }
+    return (int) (epochDay - firstEpochDay);
+  }
+
+  private int start(int day) {
+    return width > 0 ? day * width : buffer.getInt(offsetsStart + day * 4);
+  }
+
+  private int compareAt(int day, byte[] key) {
+    int start = dataStart + start(day);
+    int length = start(day + 1) - start(day);
+    int common = Math.min(length, key.length);
+    for (int i = 0; i < common; i++) {
+      int comparison = Integer.compare(buffer.get(start + i) & 0xff, key[i] & 0xff);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(length, key.length);
+  }
+
+  private static int compare(byte[] a, byte[] b) {
+    int common = Math.min(a.length, b.length);
+    for (int i = 0; i < common; i++) {
+      int comparison = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(a.length, b.length);
+  }
+
+  /**
+   * Generates a table: {@code <file> <pattern> [<fromYear> <toYear>]}, the years default to 1300
+   * and 1500. Missing parent directories of the file are created.
+   *
+   * @param args command line arguments
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2 && args.length != 4) {
+      System.err.println("Usage: PersianDateTable <file> <pattern> [<fromYear> <toYear>]");
+      System.exit(2);
+    }
+    Path file = Paths.get(args[0]);
+    Path directory = file.toAbsolutePath().getParent();
+    if (directory != null) {
+      Files.createDirectories(directory);
+    }
+    int fromYear = args.length == 4 ? Integer.parseInt(args[2]) : 1300;
+    int toYear = args.length == 4 ? Integer.parseInt(args[3]) : 1500;
+    write(file, PersianDateFormatter.ofPattern(args[1]), fromYear, toYear);
+    PersianDateTable table = open(file);
+    System.out.printf(
+        "%s: %d days of %s, %d bytes%n", file, table.count, table.pattern, Files.size(file));
+  }
+}
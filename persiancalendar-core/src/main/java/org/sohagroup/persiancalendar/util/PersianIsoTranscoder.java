@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.Constants.*;
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.time.Instant;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * Converts ISO-8601 text straight to Persian text, for gateways that rewrite date fields of JSON or
+ * CSV payloads. The input is read character by character from a {@link CharSequence} or an ASCII
+ * byte range and the result is written into a caller's buffer, without {@code DateTimeFormatter},
+ * {@code LocalDate} or an intermediate {@code String}.
+ *
+ * <p>The input is converted like the methods of {@link PersianDateConverter}:
+ *
+ * <ul>
+ *   <li>{@code 2024-03-20} like {@link PersianDateConverter#toPersianDate(java.time.LocalDate)},
+ *       with the date format
+ *   <li>{@code 2024-03-20T10:15:30[.123]}, also with a space instead of {@code T}, like {@link
+ *       PersianDateConverter#toPersianDateTimeNoZone(java.time.LocalDateTime)}, with the date-time
+ *       format; the time is kept
+ *   <li>{@code 2024-03-20T10:15:30[.123]Z} or {@code +03:30} like {@link
+ *       PersianDateConverter#toPersianDateTime(Instant)}, with the date-time format
+ * </ul>
+ *
+ * <p>Values without an offset are taken as wall clock times of the output zone. Offsets are looked
+ * up in the precomputed {@code ZoneOffsetTable} of the zone, not in its rules.
+ *
+ * <p>Instances are not thread-safe, use one per thread or stream.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianIsoTranscoder {
+  private static final long DAYS_0000_TO_1970 = 719_528L;
+
+  private final PersianDateFormatter dateFormat;
+  private final PersianDateFormatter dateTimeFormat;
+  private final ZoneOffsetTable offsets;
+  private final IsoTimestampMatcher matcher = new IsoTimestampMatcher();
+  private final AsciiSequence ascii = new AsciiSequence();
+  private final StringBuilder scratch = new StringBuilder(32);
+
+  /**
+   * Uses the formats and zone of a converter.
+   *
+   * @param converter the converter to follow
+   */
+  public PersianIsoTranscoder(PersianDateConverter converter) {
+    this(converter.getDateFormatter(), converter.getDateTimeFormatter(), converter.getZone());
+  }
+
+  /**
+   * @param dateFormat the output format of dates
+   * @param dateTimeFormat the output format of date-times
+   * @param zone the zone of the output and of values without an offset
+   */
+  public PersianIsoTranscoder(
+      PersianDateFormatter dateFormat, PersianDateFormatter dateTimeFormat, ZoneId zone) {
+    this.dateFormat = Objects.requireNonNull(dateFormat, "dateFormat param must not be null");
+    this.dateTimeFormat =
+        Objects.requireNonNull(dateTimeFormat, "dateTimeFormat param must not be null");
+    this.offsets = ZoneOffsetTable.of(Objects.requireNonNull(zone, "zone param must not be null"));
+  }
+
+  /**
+   * @param iso an ISO-8601 date or date-time
+   * @return the Persian equivalent
+   * @throws IllegalArgumentException if the input is empty or not an ISO-8601 date or date-time
+   */
+  public String transcode(CharSequence iso) {
+    if (iso == null || iso.length() == 0) {
+      throw new IllegalArgumentException(INPUT_DATE_NUT_NULL_MESSAGE);
+    }
+    scratch.setLength(0);
+    if (!transcodeTo(iso, 0, iso.length(), scratch)) {
+      throw new IllegalArgumentException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + iso);
+    }
+    return scratch.toString();
+  }
+
+  /**
+   * Appends the Persian equivalent of {@code in[start, end)}, which must hold exactly one ISO-8601
+   * date or date-time.
+   *
+   * @param in the text to read
+   * @param start index of the first character
+   * @param end index after the last character
+   * @param out destination, left unchanged when the input is not valid
+   * @return whether the input was a valid date or date-time
+   */
+  public boolean transcodeTo(CharSequence in, int start, int end, StringBuilder out) {
+    if (start < 0 || end > in.length() || start > end) {
+      throw new IndexOutOfBoundsException("start " + start + ", end " + end);
+    }
+    if (end - start < 10 || matcher.match(in, start, end, true) != end) {
+      return false;
+    }
+    IsoTimestampMatcher m = matcher;
+    if (m.day > lengthOfMonth(m.year, m.month)) {
+      return false;
+    }
+    long epochDay = epochDay(m.year, m.month, m.day);
+    if (!m.hasTime) {
+      long epochMillis = offsets.toEpochMillis(epochDay * MILLIS_PER_DAY, false);
+      dateFormat.formatTo(offsets.toLocalMillis(epochMillis), out);
+      return true;
+    }
+    long local =
+        epochDay * MILLIS_PER_DAY
+            + ((m.hour * 60L + m.minute) * 60L + m.second) * 1000L
+            + fractionMillis(in, m.fractionStart, m.fractionEnd);
+    long epochMillis =
+        m.hasOffset ? local - m.offsetSeconds * 1000L : offsets.toEpochMillis(local, false);
+    dateTimeFormat.formatTo(offsets.toLocalMillis(epochMillis), out);
+    return true;
+  }
+
+  /**
+   * Writes the UTF-8 encoded Persian equivalent of {@code in[start, end)}, which must hold exactly
+   * one ASCII encoded ISO-8601 date or date-time, such as a JSON string value without its quotes.
+   *
+   * @param in the bytes to read
+   * @param start index of the first byte
+   * @param end index after the last byte
+   * @param out destination
+   * @param outPos index in {@code out} of the first byte to write
+   * @return number of bytes written, or -1 when the input was not a valid date or date-time
+   * @throws IndexOutOfBoundsException if {@code out} has no room for the result
+   */
+  public int transcode(byte[] in, int start, int end, byte[] out, int outPos) {
+    if (start < 0 || end > in.length || start > end) {
+      throw new IndexOutOfBoundsException("start " + start + ", end " + end);
+    }
+    scratch.setLength(0);
+    boolean valid;
+    try {
+      valid = transcodeTo(ascii.wrap(in, start, end), 0, end - start, scratch);
+    } finally {
+      ascii.wrap(null, 0, 0);
+    }
+    if (!valid) {
+      return -1;
+    }
+    int length = utf8Length(scratch);
+    if (outPos < 0 || outPos > out.length - length) {
+      throw new IndexOutOfBoundsException("outPos " + outPos + ", length " + length);
+    }
+    int p = outPos;
+    for (int i = 0, n = scratch.length(); i < n; i++) {
+      char c = scratch.charAt(i);
+      if (c < 0x80) {
+        out[p++] = (byte) c;
+      } else if (c < 0x800) {
+        out[p++] = (byte) (0xc0 | c >> 6);
+        out[p++] = (byte) (0x80 | c & 0x3f);
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < n
+          && Character.isLowSurrogate(scratch.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, scratch.charAt(++i));
+        out[p++] = (byte) (0xf0 | cp >> 18);
+        out[p++] = (byte) (0x80 | cp >> 12 & 0x3f);
+        out[p++] = (byte) (0x80 | cp >> 6 & 0x3f);
+        out[p++] = (byte) (0x80 | cp & 0x3f);
+      } else if (Character.isSurrogate(c)) {
+        out[p++] = '?';
+      } else {
+        out[p++] = (byte) (0xe0 | c >> 12);
+        out[p++] = (byte) (0x80 | c >> 6 & 0x3f);
+        out[p++] = (byte) (0x80 | c & 0x3f);
+      }
+    }
+    return length;
+  }
+
+  /** @return the UTF-8 length of the text, with lone surrogates taken as {@code '?'} */
+  private static int utf8Length(CharSequence text) {
+    int length = 0;
+    for (int i = 0, n = text.length(); i < n; i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < n
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += Character.isSurrogate(c) ? 1 : 3;
+      }
+    }
+    return length;
+  }
+
+  /** @return the first three digits of the fraction after its separator, as milliseconds */
+  private static int fractionMillis(CharSequence in, int fractionStart, int fractionEnd) {
+    int millis = 0;
+    for (int i = 1; i <= 3; i++) {
+      int p = fractionStart + i;
+      millis = millis * 10 + (p < fractionEnd ? in.charAt(p) - '0' : 0);
+    }
+    return millis;
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    return Month.of(month).length(Year.isLeap(year));
+  }
+
+  /** Same as {@link java.time.LocalDate#toEpochDay()} for years 0 to 9999. */
+  private static long epochDay(int year, int month, int day) {
+    long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    total += (367 * month - 362) / 12 + day - 1;
+    if (month > 2) {
+      total -= Year.isLeap(year) ? 1 : 2;
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+}
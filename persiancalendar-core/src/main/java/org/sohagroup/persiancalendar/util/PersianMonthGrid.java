@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.time.LocalDate;
+import java.util.function.IntPredicate;
+
+/**
+ * A Persian month laid out for a calendar UI: 6 rows of 7 cells, each row from Saturday to
+ * Friday. Cells before the first and after the last day of the month hold the days of the
+ * neighbouring months. For each cell the Persian date, the Gregorian date and a holiday flag are
+ * available.
+ *
+ * <p>Dates are kept as packed {@code yyyyMMdd} ints, so a grid is a handful of small arrays. Grids
+ * are immutable; obtain them from {@link PersianMonthGrids}, which caches them.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianMonthGrid {
+  public static final int ROWS = 6;
+  public static final int COLUMNS = 7;
+  public static final int CELLS = ROWS * COLUMNS;
+
+  private final int year;
+  private final int month;
+  private final int lengthOfMonth;
+  private final int weekdayOffset;
+  private final long firstCellEpochDay;
+  private final int[] persianDates;
+  private final int[] gregorianDates;
+  private final long holidays;
+
+  PersianMonthGrid(int year, int month, IntPredicate holiday) {
+    this.year = year;
+    this.month = month;
+    this.lengthOfMonth = PersianCalendarMath.lengthOfMonth(year, month);
+    long firstDay = PersianCalendarMath.toEpochDay(year, month, 1);
+    this.weekdayOffset = PersianWeekFields.dayOfWeek(firstDay) - 1;
+    this.firstCellEpochDay = firstDay - weekdayOffset;
+    this.persianDates = new int[CELLS];
+    this.gregorianDates = new int[CELLS];
+    long flags = 0;
+    for (int cell = 0; cell < CELLS; cell++) {
+      long epochDay = firstCellEpochDay + cell;
+      int persian = PersianCalendarMath.fromEpochDay(epochDay);
+      LocalDate gregorian = LocalDate.ofEpochDay(epochDay);
+      persianDates[cell] = persian;
+      gregorianDates[cell] =
+          gregorian.getYear() * 10000 + gregorian.getMonthValue() * 100 + gregorian.getDayOfMonth();
+      if (holiday.test(persian)) {
+        flags |= 1L << cell;
+      }
+    }
+    this.holidays = flags;
+  }
+
+  public int getYear() {
+    return year;
+  }
+
+  public int getMonth() {
+    return month;
+  }
+
+  public int getLengthOfMonth() {
+    return lengthOfMonth;
+  }
+
+  /** @return column of the first day of the month, 0 for Saturday to 6 for Friday */
+  public int getWeekdayOffset() {
+    return weekdayOffset;
+  }
+
+  /** @return cell of the given day of this month */
+  public int cellOf(int dayOfMonth) {
+    if (dayOfMonth < 1 || dayOfMonth > lengthOfMonth) {
+      throw new IllegalArgumentException("Invalid day of month: " + dayOfMonth);
+    }
+    return weekdayOffset + dayOfMonth - 1;
+  }
+
+  /** @return whether the cell belongs to this month rather than a neighbouring one */
+  public boolean isInMonth(int cell) {
+    checkCell(cell);
+    return cell >= weekdayOffset && cell < weekdayOffset + lengthOfMonth;
+  }
+
+  /** @return epoch day of the cell */
+  public long getEpochDay(int cell) {
+    checkCell(cell);
+    return firstCellEpochDay + cell;
+  }
+
+  /** @return Persian date of the cell as {@code yyyyMMdd} */
+  public int getPersianDate(int cell) {
+    checkCell(cell);
+    return persianDates[cell];
+  }
+
+  /** @return Persian day of month of the cell */
+  public int getPersianDay(int cell) {
+    return PersianCalendarMath.day(getPersianDate(cell));
+  }
+
+  /** @return Gregorian date of the cell as {@code yyyyMMdd} */
+  public int getGregorianDatePacked(int cell) {
+    checkCell(cell);
+    return gregorianDates[cell];
+  }
+
+  /** @return Gregorian date of the cell */
+  public LocalDate getGregorianDate(int cell) {
+    return LocalDate.ofEpochDay(getEpochDay(cell));
+  }
+
+  public boolean isHoliday(int cell) {
+    checkCell(cell);
+    return (holidays & (1L << cell)) != 0;
+  }
+
+  /** @return holiday flags of all cells, bit {@code n} is set when cell {@code n} is a holiday */
+  public long getHolidays() {
+    return holidays;
+  }
+
+  private static void checkCell(int cell) {
+    if (cell < 0 || cell >= CELLS) {
+      throw new IndexOutOfBoundsException("Invalid cell: " + cell);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PersianMonthGrid{" + "year=" + year + ", month=" + month + '}';
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Generates {@link PersianMonthGrid}s and caches them per (year, month), so rendering a month is a
+ * map lookup. The holiday flags come from a predicate over packed {@code yyyyMMdd} Persian dates
+ * given at construction; {@link #getDefault()} flags Fridays and the official holidays fixed in
+ * the solar calendar. Holidays following the lunar calendar are not included.
+ *
+ * <p>Instances are thread-safe.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianMonthGrids {
+  /** Grids cached at most, 200 years; months beyond that are generated on each call. */
+  private static final int MAX_CACHED = 2400;
+
+  /**
+   * Fridays, Nowruz (1 to 4 Farvardin), 12 and 13 Farvardin, 14 and 15 Khordad, 22 Bahman and 29
+   * Esfand.
+   */
+  public static final IntPredicate OFFICIAL_SOLAR_HOLIDAYS =
+      date -> {
+        if (PersianWeekFields.dayOfWeekOfDate(date) == 7) {
+          return true;
+        }
+        switch (date % 10000) {
+          case 101:
+          case 102:
+          case 103:
+          case 104:
+          case 112:
+          case 113:
+          case 314:
+          case 315:
+          case 1122:
+          case 1229:
+            return true;
+          default:
+            return false;
+        }
+      };
+
+  private static final PersianMonthGrids DEFAULT = new PersianMonthGrids(OFFICIAL_SOLAR_HOLIDAYS);
+
+  private final IntPredicate holiday;
+  private final ConcurrentMap<Integer, PersianMonthGrid> cache = new ConcurrentHashMap<>();
+
+  /** @param holiday tells whether a packed {@code yyyyMMdd} Persian date is a holiday */
+  public PersianMonthGrids(IntPredicate holiday) {
+    this.holiday = Objects.requireNonNull(holiday, "holiday param must not be null");
+  }
+
+  /** @return shared generator flagging {@link #OFFICIAL_SOLAR_HOLIDAYS} */
+  public static PersianMonthGrids getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * @param year Persian year
+   * @param month Persian month, 1 to 12
+   * @return the grid of the month
+   */
+  public PersianMonthGrid get(int year, int month) {
+    if (month < 1 || month > 12) {
+      throw new IllegalArgumentException("Invalid Persian month: " + month);
+    }
+    Integer key = year * 12 + month - 1;
+    PersianMonthGrid grid = cache.get(key);
+    if (grid == null) {
+      grid = new PersianMonthGrid(year, month, holiday);
+      if (cache.size() < MAX_CACHED) {
+        PersianMonthGrid existing = cache.putIfAbsent(key, grid);
+        if (existing != null) {
+          grid = existing;
+        }
+      }
+    }
+    return grid;
+  }
+
+  /**
+   * @param epochDay any day of the month
+   * @return the grid of the Persian month containing the day
+   */
+  public PersianMonthGrid ofEpochDay(long epochDay) {
+    int date = PersianCalendarMath.fromEpochDay(epochDay);
+    return get(PersianCalendarMath.year(date), PersianCalendarMath.month(date));
+  }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Recurrence rule over Persian calendar fields, for schedules that cron cannot express such as
+ * "the 25th of every Persian month at 02:00" or "the last working day of each Persian quarter".
+ *
+ * <p>A day matches when its Persian month is one of {@link Builder#months}, and, when given, its
+ * day of month is one of {@link Builder#daysOfMonth} and its day of week one of {@link
+ * Builder#daysOfWeek}; unlike cron both day conditions must hold. {@link
+ * Builder#workingDaysOnly()} drops holidays, and {@link Builder#lastWorkingDayOfMonth()} or
+ * {@link Builder#firstWorkingDayOfMonth()} pick a single day per month instead. The rule fires on
+ * every matching day at each of its times of day, in {@link Builder#zone}, by default {@value
+ * org.sohagroup.persiancalendar.Constants#ASIA_TEHRAN_ZONE}. A local time falling in a daylight
+ * saving gap fires after the gap, and one repeated by an overlap fires once, at the earlier offset,
+ * as {@link ZonedDateTime#of(LocalDateTime, ZoneId)} resolves them.
+ *
+ * <p>Days are searched month by month with {@link PersianCalendarMath}, months not in the rule are
+ * skipped whole. A rule matching no day within {@value #SEARCH_YEARS} years, for example the 31st
+ * of Esfand, has no next or previous fire time.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianRecurrence {
+  /** Years searched for a matching day before giving up. */
+  public static final int SEARCH_YEARS = 100;
+
+  private static final int ALL_MONTHS = 0x1ffe;
+  private static final int SEARCH_MONTHS = SEARCH_YEARS * 12;
+
+  private enum DayMode {
+    MATCHING,
+    FIRST_WORKING,
+    LAST_WORKING
+  }
+
+  private final int months;
+  private final long daysOfMonth;
+  private final long lastDaysOfMonth;
+  private final int daysOfWeek;
+  private final DayMode dayMode;
+  private final boolean workingDaysOnly;
+  private final IntPredicate holiday;
+  private final LocalTime[] times;
+  private final long[] millisOfDay;
+  private final ZoneId zone;
+  private final ZoneOffsetTable offsets;
+
+  private PersianRecurrence(Builder builder) {
+    this.months = builder.months == 0 ? ALL_MONTHS : builder.months;
+    this.daysOfMonth = builder.daysOfMonth;
+    this.lastDaysOfMonth = builder.lastDaysOfMonth;
+    this.daysOfWeek = builder.daysOfWeek;
+    this.dayMode = builder.dayMode;
+    this.workingDaysOnly = builder.workingDaysOnly;
+    this.holiday = builder.holiday;
+    int[] secondsOfDay =
+        builder.secondsOfDay.length == 0
+            ? new int[] {0}
+            : Arrays.stream(builder.secondsOfDay).sorted().distinct().toArray();
+    this.times = new LocalTime[secondsOfDay.length];
+    this.millisOfDay = new long[secondsOfDay.length];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = LocalTime.ofSecondOfDay(secondsOfDay[i]);
+      millisOfDay[i] = secondsOfDay[i] * 1000L;
+    }
+    this.zone = builder.zone;
+    this.offsets = ZoneOffsetTable.of(zone);
+  }
+
+  public static class Builder {
+    private int months;
+    private long daysOfMonth;
+    private long lastDaysOfMonth;
+    private int daysOfWeek;
+    private DayMode dayMode = DayMode.MATCHING;
+    private boolean workingDaysOnly;
+    private IntPredicate holiday = PersianMonthGrids.OFFICIAL_SOLAR_HOLIDAYS;
+    private int[] secondsOfDay = new int[0];
+    private ZoneId zone = ZoneId.of(ASIA_TEHRAN_ZONE);
+
+    /**
+     * @param months Persian months, 1 to 12; all months when never called
+     */
+    public Builder months(int... months) {
+      for (int month : months) {
+        if (month < 1 || month > 12) {
+          throw new IllegalArgumentException("Invalid Persian month: " + month);
+        }
+        this.months |= 1 << month;
+      }
+      return this;
+    }
+
+    /**
+     * @param days days of month, 1 to 31, or -1 for the last day, -2 for the one before and so on
+     */
+    public Builder daysOfMonth(int... days) {
+      for (int day : days) {
+        if (day >= 1 && day <= 31) {
+          this.daysOfMonth |= 1L << day;
+        } else if (day <= -1 && day >= -31) {
+          this.lastDaysOfMonth |= 1L << -day;
+        } else {
+          throw new IllegalArgumentException("Invalid Persian day of month: " + day);
+        }
+      }
+      return this;
+    }
+
+    public Builder daysOfWeek(DayOfWeek... days) {
+      for (DayOfWeek day : days) {
+        this.daysOfWeek |= 1 << PersianWeekFields.dayOfWeek(day);
+      }
+      return this;
+    }
+
+    /** Skips days flagged by {@link #holidays(IntPredicate)}. */
+    public Builder workingDaysOnly() {
+      this.workingDaysOnly = true;
+      return this;
+    }
+
+    /** Fires once a month, on its last working day, after the other day conditions are applied. */
+    public Builder lastWorkingDayOfMonth() {
+      this.dayMode = DayMode.LAST_WORKING;
+      return this;
+    }
+
+    /** Fires once a month, on its first working day, after the other day conditions are applied. */
+    public Builder firstWorkingDayOfMonth() {
+      this.dayMode = DayMode.FIRST_WORKING;
+      return this;
+    }
+
+    /**
+     * @param holiday tells whether a packed {@code yyyyMMdd} Persian date is a holiday, {@link
+     *     PersianMonthGrids#OFFICIAL_SOLAR_HOLIDAYS} by default
+     */
+    public Builder holidays(IntPredicate holiday) {
+      this.holiday = Objects.requireNonNull(holiday, "holiday param must not be null");
+      return this;
+    }
+
+    /** @param times times of day to fire at; midnight when never called */
+    public Builder at(LocalTime... times) {
+      int[] seconds = Arrays.copyOf(secondsOfDay, secondsOfDay.length + times.length);
+      for (int i = 0; i < times.length; i++) {
+        seconds[secondsOfDay.length + i] = times[i].toSecondOfDay();
+      }
+      this.secondsOfDay = seconds;
+      return this;
+    }
+
+    public Builder at(int hour, int minute) {
+      return at(LocalTime.of(hour, minute));
+    }
+
+    public Builder zone(ZoneId zone) {
+      this.zone = Objects.requireNonNull(zone, "zone param must not be null");
+      return this;
+    }
+
+    public PersianRecurrence build() {
+      return new PersianRecurrence(this);
+    }
+  }
+
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return whether the rule fires on the day
+   */
+  public boolean matches(long epochDay) {
+    int date = PersianCalendarMath.fromEpochDay(epochDay);
+    int year = PersianCalendarMath.year(date);
+    int month = PersianCalendarMath.month(date);
+    int day = PersianCalendarMath.day(date);
+    return (months & (1 << month)) != 0 && firstMatchingDay(year, month, day, day) == day;
+  }
+
+  /**
+   * @param fromEpochDay first day to consider
+   * @return first matching epoch day on or after {@code fromEpochDay}, or {@code Long.MIN_VALUE}
+   *     when there is none within {@value #SEARCH_YEARS} years
+   */
+  public long nextEpochDay(long fromEpochDay) {
+    int date = PersianCalendarMath.fromEpochDay(fromEpochDay);
+    int year = PersianCalendarMath.year(date);
+    int month = PersianCalendarMath.month(date);
+    int from = PersianCalendarMath.day(date);
+    for (int i = 0; i <= SEARCH_MONTHS; i++) {
+      if ((months & (1 << month)) != 0) {
+        int day =
+            firstMatchingDay(year, month, from, PersianCalendarMath.lengthOfMonth(year, month));
+        if (day > 0) {
+          return PersianCalendarMath.toEpochDay(year, month, day);
+        }
+      }
+      from = 1;
+      if (++month > 12) {
+        month = 1;
+        year++;
+      }
+    }
+    return Long.MIN_VALUE;
+  }
+
+  /**
+   * @param toEpochDay last day to consider
+   * @return last matching epoch day on or before {@code toEpochDay}, or {@code Long.MIN_VALUE}
+   *     when there is none within {@value #SEARCH_YEARS} years
+   */
+  public long previousEpochDay(long toEpochDay) {
+    int date = PersianCalendarMath.fromEpochDay(toEpochDay);
+    int year = PersianCalendarMath.year(date);
+    int month = PersianCalendarMath.month(date);
+    int to = PersianCalendarMath.day(date);
+    for (int i = 0; i <= SEARCH_MONTHS; i++) {
+      if ((months & (1 << month)) != 0) {
+        int day = lastMatchingDay(year, month, to);
+        if (day > 0) {
+          return PersianCalendarMath.toEpochDay(year, month, day);
+        }
+      }
+      if (--month < 1) {
+        month = 12;
+        year--;
+      }
+      to = PersianCalendarMath.lengthOfMonth(year, month);
+    }
+    return Long.MIN_VALUE;
+  }
+
+  /**
+   * @param after exclusive lower bound
+   * @return the first fire time after {@code after}, or null when the rule never fires again
+   */
+  public Instant next(Instant after) {
+    long millis = nextEpochMillis(after.toEpochMilli());
+    return millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis);
+  }
+
+  /**
+   * @param before exclusive upper bound
+   * @return the last fire time before {@code before}, or null when the rule never fired before
+   */
+  public Instant previous(Instant before) {
+    long millis = previousEpochMillis(before.toEpochMilli());
+    return millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis);
+  }
+
+  /**
+   * @param afterEpochMillis exclusive lower bound
+   * @return the first fire time after the bound, or {@code Long.MIN_VALUE} when there is none
+   */
+  public long nextEpochMillis(long afterEpochMillis) {
+    // start a day early, the local day of the bound depends on the offset
+    long epochDay = nextEpochDay(Math.floorDiv(afterEpochMillis, 86_400_000L) - 1);
+    while (epochDay != Long.MIN_VALUE) {
+      for (int time = 0; time < times.length; time++) {
+        long millis = toEpochMillis(epochDay, time);
+        if (millis > afterEpochMillis) {
+          return millis;
+        }
+      }
+      epochDay = nextEpochDay(epochDay + 1);
+    }
+    return Long.MIN_VALUE;
+  }
+
+  /**
+   * @param beforeEpochMillis exclusive upper bound
+   * @return the last fire time before the bound, or {@code Long.MIN_VALUE} when there is none
+   */
+  public long previousEpochMillis(long beforeEpochMillis) {
+    long epochDay = previousEpochDay(Math.floorDiv(beforeEpochMillis, 86_400_000L) + 1);
+    while (epochDay != Long.MIN_VALUE) {
+      for (int time = times.length - 1; time >= 0; time--) {
+        long millis = toEpochMillis(epochDay, time);
+        if (millis < beforeEpochMillis) {
+          return millis;
+        }
+      }
+      epochDay = previousEpochDay(epochDay - 1);
+    }
+    return Long.MIN_VALUE;
+  }
+
+  /**
+   * Fills {@code out} with the fire times following {@code afterEpochMillis}, in order.
+   *
+   * @param afterEpochMillis exclusive lower bound
+   * @param out destination of the fire times, in epoch millis
+   * @return number of fire times written, less than {@code out.length} only when the rule stops
+   *     matching
+   */
+  public int nextEpochMillis(long afterEpochMillis, long[] out) {
+    int count = 0;
+    long last = afterEpochMillis;
+    long epochDay = Long.MIN_VALUE;
+    if (out.length > 0) {
+      last = nextEpochMillis(afterEpochMillis);
+      if (last == Long.MIN_VALUE) {
+        return 0;
+      }
+      out[count++] = last;
+      epochDay = nextEpochDay(Math.floorDiv(last, 86_400_000L) - 1);
+    }
+    while (count < out.length && epochDay != Long.MIN_VALUE) {
+      for (int time = 0; time < times.length && count < out.length; time++) {
+        long millis = toEpochMillis(epochDay, time);
+        if (millis > last) {
+          out[count++] = millis;
+          last = millis;
+        }
+      }
+      epochDay = nextEpochDay(epochDay + 1);
+    }
+    return count;
+  }
+
+  /** Resolves a wall clock time like {@link ZonedDateTime#of(LocalDateTime, ZoneId)}. */
+  private long toEpochMillis(long epochDay, int time) {
+    return offsets.toEpochMillis(epochDay * 86_400_000L + millisOfDay[time], false);
+  }
+
+  /** @return first day in {@code [from, to]} of the month the rule fires on, or 0 */
+  private int firstMatchingDay(int year, int month, int from, int to) {
+    int length = PersianCalendarMath.lengthOfMonth(year, month);
+    if (dayMode != DayMode.MATCHING) {
+      int day = workingDay(year, month, length);
+      return day >= from && day <= to ? day : 0;
+    }
+    long firstDay = PersianCalendarMath.toEpochDay(year, month, 1);
+    for (int day = from; day <= to; day++) {
+      if (dayMatches(year, month, day, length, firstDay + day - 1)) {
+        return day;
+      }
+    }
+    return 0;
+  }
+
+  /** @return last day in {@code [1, to]} of the month the rule fires on, or 0 */
+  private int lastMatchingDay(int year, int month, int to) {
+    int length = PersianCalendarMath.lengthOfMonth(year, month);
+    if (dayMode != DayMode.MATCHING) {
+      int day = workingDay(year, month, length);
+      return day <= to ? day : 0;
+    }
+    long firstDay = PersianCalendarMath.toEpochDay(year, month, 1);
+    for (int day = to; day >= 1; day--) {
+      if (dayMatches(year, month, day, length, firstDay + day - 1)) {
+        return day;
+      }
+    }
+    return 0;
+  }
+
+  /** @return the first or last working day of the month meeting the day conditions, or 0 */
+  private int workingDay(int year, int month, int length) {
+    long firstDay = PersianCalendarMath.toEpochDay(year, month, 1);
+    boolean first = dayMode == DayMode.FIRST_WORKING;
+    for (int i = 0; i < length; i++) {
+      int day = first ? 1 + i : length - i;
+      if (dayMatches(year, month, day, length, firstDay + day - 1)
+          && !holiday.test(PersianCalendarMath.pack(year, month, day))) {
+        return day;
+      }
+    }
+    return 0;
+  }
+
+  private boolean dayMatches(int year, int month, int day, int length, long epochDay) {
+    if ((daysOfMonth | lastDaysOfMonth) != 0
+        && (daysOfMonth & (1L << day)) == 0
+        && (lastDaysOfMonth & (1L << (length - day + 1))) == 0) {
+      return false;
+    }
+    if (daysOfWeek != 0 && (daysOfWeek & (1 << PersianWeekFields.dayOfWeek(epochDay))) == 0) {
+      return false;
+    }
+    return !workingDaysOnly || !holiday.test(PersianCalendarMath.pack(year, month, day));
+  }
+
+  @Override
+  public String toString() {
+    return "PersianRecurrence{"
+        + "months="
+        + Integer.toBinaryString(months)
+        + ", daysOfMonth="
+        + Long.toBinaryString(daysOfMonth)
+        + ", lastDaysOfMonth="
+        + Long.toBinaryString(lastDaysOfMonth)
+        + ", daysOfWeek="
+        + Integer.toBinaryString(daysOfWeek)
+        + ", dayMode="
+        + dayMode
+        + ", workingDaysOnly="
+        + workingDaysOnly
+        + ", times="
+        + Arrays.toString(times)
+        + ", zone="
+        + zone
+        + '}';
+  }
+}
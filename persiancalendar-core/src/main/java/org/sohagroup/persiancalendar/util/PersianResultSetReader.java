@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Reads designated {@code DATE} and {@code TIMESTAMP} columns of a {@link ResultSet} as Persian
+ * text, converting a cell only when it is asked for. Each cell is read from the driver at most once
+ * per row, its epoch value and formatted text are kept until the cursor moves, and cells never
+ * asked for cost nothing.
+ *
+ * <p>Values are converted like the methods of {@link PersianDateConverter}:
+ *
+ * <ul>
+ *   <li>{@code DATE} like {@link PersianDateConverter#toPersianDate(LocalDate)}
+ *   <li>{@code TIMESTAMP} like {@link PersianDateConverter#toPersianDateTimeNoZone(LocalDateTime)}
+ *   <li>{@code TIMESTAMP WITH TIME ZONE} like {@link
+ *       PersianDateConverter#toPersianDateTime(java.time.Instant)}
+ * </ul>
+ *
+ * <p>Other columns are read from {@link #getResultSet()}. The reader does not close the result
+ * set. Like a result set, an instance must not be shared between threads.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianResultSetReader {
+
+  /** Returned by {@link #getEpochMillis} for SQL {@code NULL}. */
+  public static final long NULL = Long.MIN_VALUE;
+
+  private final ResultSet resultSet;
+  private final PersianDateConverter converter;
+  /** Slot of every column index, -1 for columns that are not converted. */
+  private final int[] slots;
+  private final int[] columns;
+  private final int[] types;
+  private final boolean[] read;
+  private final long[] values;
+  private final String[] texts;
+  private long conversions;
+
+  /**
+   * Converts every {@code DATE} and {@code TIMESTAMP} column.
+   *
+   * @param resultSet the rows to read, positioned before the first row
+   * @param converter formats and zone of the output
+   * @throws SQLException if the metadata cannot be read
+   */
+  public PersianResultSetReader(ResultSet resultSet, PersianDateConverter converter)
+      throws SQLException {
+    this(resultSet, converter, new int[0]);
+  }
+
+  /**
+   * @param resultSet the rows to read, positioned before the first row
+   * @param converter formats and zone of the output
+   * @param columnLabels the columns to convert, all {@code DATE} and {@code TIMESTAMP} columns when
+   *     empty
+   * @throws SQLException if a label is unknown or its column is not a date or timestamp
+   */
+  public PersianResultSetReader(
+      ResultSet resultSet, PersianDateConverter converter, String... columnLabels)
+      throws SQLException {
+    this(resultSet, converter, indexes(resultSet, columnLabels));
+  }
+
+  /**
+   * @param resultSet the rows to read, positioned before the first row
+   * @param converter formats and zone of the output
+   * @param columnIndexes the 1-based columns to convert, all {@code DATE} and {@code TIMESTAMP}
+   *     columns when empty
+   * @throws SQLException if an index is out of range or its column is not a date or timestamp
+   */
+  public PersianResultSetReader(
+      ResultSet resultSet, PersianDateConverter converter, int... columnIndexes)
+      throws SQLException {
+    this.resultSet = Objects.requireNonNull(resultSet, "resultSet param must not be null");
+    this.converter = Objects.requireNonNull(converter, "converter param must not be null");
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    int columnCount = metaData.getColumnCount();
+    int[] designated = columnIndexes;
+    if (designated.length == 0) {
+      designated = new int[columnCount];
+      int count = 0;
+      for (int column = 1; column <= columnCount; column++) {
+        if (isDateType(metaData.getColumnType(column))) {
+          designated[count++] = column;
+        }
+      }
+      designated = Arrays.copyOf(designated, count);
+    }
+    slots = new int[columnCount + 1];
+    Arrays.fill(slots, -1);
+    columns = designated.clone();
+    types = new int[columns.length];
+    for (int slot = 0; slot < columns.length; slot++) {
+      int column = columns[slot];
+      if (column < 1 || column > columnCount) {
+        throw new SQLException("Column index out of range: " + column);
+      }
+      types[slot] = metaData.getColumnType(column);
+      if (!isDateType(types[slot])) {
+        throw new SQLException(
+            "Column " + metaData.getColumnLabel(column) + " is not a DATE or TIMESTAMP column");
+      }
+      slots[column] = slot;
+    }
+    read = new boolean[columns.length];
+    values = new long[columns.length];
+    texts = new String[columns.length];
+  }
+
+  /** @return the wrapped result set, for the other columns */
+  public ResultSet getResultSet() {
+    return resultSet;
+  }
+
+  /**
+   * Moves to the next row, dropping the values kept for the current one.
+   *
+   * @return whether there is a row
+   * @throws SQLException if the driver fails
+   */
+  public boolean next() throws SQLException {
+    Arrays.fill(read, false);
+    Arrays.fill(texts, null);
+    return resultSet.next();
+  }
+
+  /**
+   * @param columnIndex a converted column
+   * @return milliseconds since 1970-01-01T00:00:00Z, or {@link #NULL}
+   * @throws SQLException if the column is not converted or the driver fails
+   */
+  public long getEpochMillis(int columnIndex) throws SQLException {
+    int slot = slot(columnIndex);
+    if (!read[slot]) {
+      values[slot] = readEpochMillis(columns[slot], types[slot]);
+      read[slot] = true;
+    }
+    return values[slot];
+  }
+
+  /**
+   * @param columnIndex a converted column
+   * @return the Persian date or date-time, or null for SQL {@code NULL}
+   * @throws SQLException if the column is not converted or the driver fails
+   */
+  public String getPersian(int columnIndex) throws SQLException {
+    int slot = slot(columnIndex);
+    String text = texts[slot];
+    if (text == null) {
+      long epochMillis = getEpochMillis(columnIndex);
+      if (epochMillis == NULL) {
+        return null;
+      }
+      conversions++;
+      text =
+          types[slot] == Types.DATE
+              ? converter.formatDate(epochMillis)
+              : converter.formatDateTime(epochMillis);
+      texts[slot] = text;
+    }
+    return text;
+  }
+
+  /**
+   * @param columnLabel a converted column
+   * @return the Persian date or date-time, or null for SQL {@code NULL}
+   * @throws SQLException if the column is not converted or the driver fails
+   */
+  public String getPersian(String columnLabel) throws SQLException {
+    return getPersian(resultSet.findColumn(columnLabel));
+  }
+
+  /**
+   * Appends the Persian date or date-time of a cell, without keeping the text.
+   *
+   * @param columnIndex a converted column
+   * @param out destination
+   * @return false, appending nothing, for SQL {@code NULL}
+   * @throws SQLException if the column is not converted or the driver fails
+   */
+  public boolean formatTo(int columnIndex, StringBuilder out) throws SQLException {
+    int slot = slot(columnIndex);
+    if (texts[slot] != null) {
+      out.append(texts[slot]);
+      return true;
+    }
+    long epochMillis = getEpochMillis(columnIndex);
+    if (epochMillis == NULL) {
+      return false;
+    }
+    conversions++;
+    long localMillis = PersianDateConverter.toLocalMillis(converter.getZone(), epochMillis);
+    (types[slot] == Types.DATE ? converter.getDateFormatter() : converter.getDateTimeFormatter())
+        .formatTo(localMillis, out);
+    return true;
+  }
+
+  /**
+   * Maps up to {@code maxRows} rows, for consumers that serialize in batches. Call it again for the
+   * next batch until it returns an empty list.
+   *
+   * @param mapper maps the current row
+   * @param maxRows maximum number of rows to map
+   * @param <T> type of a mapped row
+   * @return the mapped rows, empty at the end of the result set
+   * @throws SQLException if the driver or the mapper fails
+   */
+  public <T> List<T> nextBatch(RowMapper<T> mapper, int maxRows) throws SQLException {
+    if (maxRows < 1) {
+      throw new IllegalArgumentException("maxRows must be positive: " + maxRows);
+    }
+    List<T> rows = new ArrayList<>(Math.min(maxRows, 1024));
+    while (rows.size() < maxRows && next()) {
+      rows.add(mapper.map(this));
+    }
+    return rows;
+  }
+
+  /** @return number of cells formatted so far */
+  public long getConversionCount() {
+    return conversions;
+  }
+
+  private int slot(int columnIndex) throws SQLException {
+    int slot = columnIndex > 0 && columnIndex < slots.length ? slots[columnIndex] : -1;
+    if (slot < 0) {
+      throw new SQLException("Column " + columnIndex + " is not converted to Persian");
+    }
+    return slot;
+  }
+
+  private long readEpochMillis(int column, int type) throws SQLException {
+    switch (type) {
+      case Types.DATE:
+        LocalDate date = resultSet.getObject(column, LocalDate.class);
+        return date == null
+            ? NULL
+            : converter.fromLocal(date.toEpochDay() * MILLIS_PER_DAY);
+      case Types.TIMESTAMP:
+        LocalDateTime dateTime = resultSet.getObject(column, LocalDateTime.class);
+        return dateTime == null
+            ? NULL
+            : converter.fromLocal(
+                dateTime.toLocalDate().toEpochDay() * MILLIS_PER_DAY
+                    + dateTime.toLocalTime().toNanoOfDay() / 1_000_000L);
+      default:
+        OffsetDateTime instant = resultSet.getObject(column, OffsetDateTime.class);
+        return instant == null ? NULL : instant.toInstant().toEpochMilli();
+    }
+  }
+
+  private static boolean isDateType(int type) {
+    return type == Types.DATE || type == Types.TIMESTAMP || type == Types.TIMESTAMP_WITH_TIMEZONE;
+  }
+
+  private static int[] indexes(ResultSet resultSet, String[] columnLabels) throws SQLException {
+    int[] indexes = new int[columnLabels.length];
+    for (int i = 0; i < columnLabels.length; i++) {
+      indexes[i] = resultSet.findColumn(columnLabels[i]);
+    }
+    return indexes;
+  }
+
+  /**
+   * Maps the current row of a reader.
+   *
+   * @param <T> type of a mapped row
+   */
+  @FunctionalInterface
+  public interface RowMapper<T> {
+    T map(PersianResultSetReader row) throws SQLException;
+  }
+}
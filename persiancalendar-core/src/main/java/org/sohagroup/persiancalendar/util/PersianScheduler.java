@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs tasks at the fire times of {@link PersianRecurrence}s on a {@link ScheduledExecutorService}.
+ * Each run schedules the next one with a one-shot delay, so only one pending future exists per
+ * job. Fire times missed while a run was late or slow are skipped, the next run is the first fire
+ * time after the current time.
+ *
+ * <p>A task throwing an exception does not stop its job; the exception goes to the uncaught
+ * exception handler of the executing thread and the next fire time is scheduled as usual. The
+ * executor is not owned by the scheduler and is not shut down by it; jobs end once it is.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianScheduler {
+  private final ScheduledExecutorService executor;
+  private final Clock clock;
+
+  public PersianScheduler(ScheduledExecutorService executor) {
+    this(executor, Clock.systemUTC());
+  }
+
+  /**
+   * @param executor runs the tasks
+   * @param clock source of the current time
+   */
+  public PersianScheduler(ScheduledExecutorService executor, Clock clock) {
+    this.executor = Objects.requireNonNull(executor, "executor param must not be null");
+    this.clock = Objects.requireNonNull(clock, "clock param must not be null");
+  }
+
+  /**
+   * @param recurrence when to run the task
+   * @param task the task to run
+   * @return handle to cancel the job, or an already finished job when the rule never fires
+   */
+  public Job schedule(PersianRecurrence recurrence, Runnable task) {
+    Objects.requireNonNull(recurrence, "recurrence param must not be null");
+    Objects.requireNonNull(task, "task param must not be null");
+    Job job = new Job(recurrence, task);
+    job.scheduleNext(Long.MIN_VALUE);
+    return job;
+  }
+
+  /** A scheduled recurrence, rescheduling itself after every run until cancelled. */
+  public final class Job {
+    private final PersianRecurrence recurrence;
+    private final Runnable task;
+    private final AtomicLong runs = new AtomicLong();
+    private volatile long nextFireTime = Long.MIN_VALUE;
+    private volatile boolean cancelled;
+    private ScheduledFuture<?> future;
+
+    private Job(PersianRecurrence recurrence, Runnable task) {
+      this.recurrence = recurrence;
+      this.task = task;
+    }
+
+    /** @param fired the fire time just run, the executor may run it before the clock reaches it */
+    private synchronized void scheduleNext(long fired) {
+      if (cancelled) {
+        return;
+      }
+      long now = clock.millis();
+      nextFireTime = recurrence.nextEpochMillis(Math.max(now, fired));
+      if (nextFireTime == Long.MIN_VALUE) {
+        future = null;
+        return;
+      }
+      long fireTime = nextFireTime;
+      try {
+        future = executor.schedule(() -> run(fireTime), fireTime - now, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        // the executor was shut down, the job ends
+        nextFireTime = Long.MIN_VALUE;
+        future = null;
+      }
+    }
+
+    private void run(long fireTime) {
+      try {
+        if (!cancelled) {
+          runs.incrementAndGet();
+          task.run();
+        }
+      } catch (RuntimeException e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+      } finally {
+        scheduleNext(fireTime);
+      }
+    }
+
+    /** Stops the job, a run in progress completes. */
+    public synchronized void cancel() {
+      cancelled = true;
+      nextFireTime = Long.MIN_VALUE;
+      if (future != null) {
+        future.cancel(false);
+      }
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+
+    /** @return whether the job has a pending run */
+    public boolean isScheduled() {
+      return nextFireTime != Long.MIN_VALUE;
+    }
+
+    /** @return the pending fire time, or null when cancelled or the rule stopped matching */
+    public Instant getNextFireTime() {
+      long millis = nextFireTime;
+      return millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    /** @return number of runs started */
+    public long getRunCount() {
+      return runs.get();
+    }
+
+    public PersianRecurrence getRecurrence() {
+      return recurrence;
+    }
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.time.DayOfWeek;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAdjuster;
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link TemporalAdjuster}s working in the Persian calendar, for example {@code
+ * date.with(PersianTemporalAdjusters.lastDayOfMonth())} gives the last day of the Persian month of
+ * {@code date}. They apply to any temporal supporting {@link ChronoField#EPOCH_DAY}, such as {@code
+ * LocalDate}, {@code LocalDateTime} and {@code ZonedDateTime}; only the date changes, the time of
+ * day is kept as {@code with(EPOCH_DAY, ...)} keeps it.
+ *
+ * <p>Results are computed with {@link PersianCalendarMath}, without formatting or parsing. Persian
+ * quarters are the seasons: Farvardin to Khordad, Tir to Shahrivar, Mehr to Azar and Dey to Esfand.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianTemporalAdjusters {
+
+  private PersianTemporalAdjusters() {
+    throw new IllegalStateException("Utility Class, cannot be instantiate");
+  }
+
+  private static final TemporalAdjuster FIRST_DAY_OF_MONTH =
+      ofEpochDay(epochDay -> epochDay - PersianCalendarMath.day(date(epochDay)) + 1);
+
+  private static final TemporalAdjuster LAST_DAY_OF_MONTH =
+      ofEpochDay(PersianTemporalAdjusters::lastDayOfMonthOf);
+
+  private static final TemporalAdjuster FIRST_DAY_OF_NEXT_MONTH =
+      ofEpochDay(epochDay -> lastDayOfMonthOf(epochDay) + 1);
+
+  private static final TemporalAdjuster FIRST_DAY_OF_QUARTER =
+      ofEpochDay(
+          epochDay -> {
+            int date = date(epochDay);
+            int month = (PersianCalendarMath.month(date) - 1) / 3 * 3 + 1;
+            return PersianCalendarMath.toEpochDay(PersianCalendarMath.year(date), month, 1);
+          });
+
+  private static final TemporalAdjuster LAST_DAY_OF_QUARTER =
+      ofEpochDay(
+          epochDay -> {
+            int date = date(epochDay);
+            int year = PersianCalendarMath.year(date);
+            int month = (PersianCalendarMath.month(date) + 2) / 3 * 3;
+            return PersianCalendarMath.toEpochDay(
+                year, month, PersianCalendarMath.lengthOfMonth(year, month));
+          });
+
+  private static final TemporalAdjuster FIRST_DAY_OF_YEAR =
+      ofEpochDay(
+          epochDay ->
+              PersianCalendarMath.firstDayOfYear(PersianCalendarMath.yearOfEpochDay(epochDay)));
+
+  private static final TemporalAdjuster LAST_DAY_OF_YEAR =
+      ofEpochDay(
+          epochDay ->
+              PersianCalendarMath.firstDayOfYear(PersianCalendarMath.yearOfEpochDay(epochDay) + 1)
+                  - 1);
+
+  private static final TemporalAdjuster NEXT_NOWRUZ =
+      ofEpochDay(
+          epochDay ->
+              PersianCalendarMath.firstDayOfYear(PersianCalendarMath.yearOfEpochDay(epochDay) + 1));
+
+  /** @return adjuster to the first day of the Persian month */
+  public static TemporalAdjuster firstDayOfMonth() {
+    return FIRST_DAY_OF_MONTH;
+  }
+
+  /** @return adjuster to the last day of the Persian month */
+  public static TemporalAdjuster lastDayOfMonth() {
+    return LAST_DAY_OF_MONTH;
+  }
+
+  /** @return adjuster to the first day of the next Persian month */
+  public static TemporalAdjuster firstDayOfNextMonth() {
+    return FIRST_DAY_OF_NEXT_MONTH;
+  }
+
+  /** @return adjuster to the first day of the Persian quarter */
+  public static TemporalAdjuster firstDayOfQuarter() {
+    return FIRST_DAY_OF_QUARTER;
+  }
+
+  /** @return adjuster to the last day of the Persian quarter */
+  public static TemporalAdjuster lastDayOfQuarter() {
+    return LAST_DAY_OF_QUARTER;
+  }
+
+  /** @return adjuster to 1 Farvardin of the Persian year */
+  public static TemporalAdjuster firstDayOfYear() {
+    return FIRST_DAY_OF_YEAR;
+  }
+
+  /** @return adjuster to the last day of Esfand of the Persian year */
+  public static TemporalAdjuster lastDayOfYear() {
+    return LAST_DAY_OF_YEAR;
+  }
+
+  /** @return adjuster to the next 1 Farvardin, a year later when the date is 1 Farvardin */
+  public static TemporalAdjuster nextNowruz() {
+    return NEXT_NOWRUZ;
+  }
+
+  /**
+   * @param dayOfMonth day of the Persian month, 1 to 31; clamped to the last day of shorter months
+   * @return adjuster to the day of the same Persian month
+   */
+  public static TemporalAdjuster dayOfMonth(int dayOfMonth) {
+    if (dayOfMonth < 1 || dayOfMonth > 31) {
+      throw new IllegalArgumentException("Invalid Persian day of month: " + dayOfMonth);
+    }
+    return ofEpochDay(
+        epochDay -> {
+          int date = date(epochDay);
+          int year = PersianCalendarMath.year(date);
+          int month = PersianCalendarMath.month(date);
+          int day = Math.min(dayOfMonth, PersianCalendarMath.lengthOfMonth(year, month));
+          return PersianCalendarMath.toEpochDay(year, month, day);
+        });
+  }
+
+  /**
+   * @param dayOfWeek the day of week to find
+   * @return adjuster to the first such day of week in the Persian month
+   */
+  public static TemporalAdjuster firstInMonth(DayOfWeek dayOfWeek) {
+    int target = persianDayOfWeek(dayOfWeek);
+    return ofEpochDay(
+        epochDay -> {
+          long first = epochDay - PersianCalendarMath.day(date(epochDay)) + 1;
+          return first + Math.floorMod(target - PersianWeekFields.dayOfWeek(first), 7);
+        });
+  }
+
+  /**
+   * @param dayOfWeek the day of week to find
+   * @return adjuster to the last such day of week in the Persian month
+   */
+  public static TemporalAdjuster lastInMonth(DayOfWeek dayOfWeek) {
+    int target = persianDayOfWeek(dayOfWeek);
+    return ofEpochDay(epochDay -> lastInMonth(lastDayOfMonthOf(epochDay), target));
+  }
+
+  /**
+   * Adjuster to the last given day of week of a month in the same Persian year, for example {@code
+   * lastInMonth(12, DayOfWeek.THURSDAY)} is the last Thursday of Esfand.
+   *
+   * @param month Persian month, 1 to 12
+   * @param dayOfWeek the day of week to find
+   * @return adjuster to the last such day of week in the month
+   */
+  public static TemporalAdjuster lastInMonth(int month, DayOfWeek dayOfWeek) {
+    if (month < 1 || month > 12) {
+      throw new IllegalArgumentException("Invalid Persian month: " + month);
+    }
+    int target = persianDayOfWeek(dayOfWeek);
+    return ofEpochDay(
+        epochDay -> {
+          int year = PersianCalendarMath.yearOfEpochDay(epochDay);
+          long last =
+              PersianCalendarMath.toEpochDay(
+                  year, month, PersianCalendarMath.lengthOfMonth(year, month));
+          return lastInMonth(last, target);
+        });
+  }
+
+  /**
+   * @param dayOfWeek the day of week to find
+   * @return adjuster to the next such day of week, a week later when the date already is one
+   */
+  public static TemporalAdjuster next(DayOfWeek dayOfWeek) {
+    int target = persianDayOfWeek(dayOfWeek);
+    return ofEpochDay(
+        epochDay ->
+            epochDay + 7 - Math.floorMod(PersianWeekFields.dayOfWeek(epochDay) - target, 7));
+  }
+
+  private static long lastInMonth(long lastDayOfMonth, int target) {
+    return lastDayOfMonth - Math.floorMod(PersianWeekFields.dayOfWeek(lastDayOfMonth) - target, 7);
+  }
+
+  private static long lastDayOfMonthOf(long epochDay) {
+    int date = date(epochDay);
+    int year = PersianCalendarMath.year(date);
+    int month = PersianCalendarMath.month(date);
+    return PersianCalendarMath.toEpochDay(
+        year, month, PersianCalendarMath.lengthOfMonth(year, month));
+  }
+
+  private static int persianDayOfWeek(DayOfWeek dayOfWeek) {
+    Objects.requireNonNull(dayOfWeek, "dayOfWeek param must not be null");
+    return PersianWeekFields.dayOfWeek(dayOfWeek);
+  }
+
+  private static int date(long epochDay) {
+    return PersianCalendarMath.fromEpochDay(epochDay);
+  }
+
+  private static TemporalAdjuster ofEpochDay(LongUnaryOperator adjust) {
+    return temporal ->
+        temporal.with(
+            ChronoField.EPOCH_DAY, adjust.applyAsLong(temporal.getLong(ChronoField.EPOCH_DAY)));
+  }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.time.DayOfWeek;
+
+/**
+ * Week fields of the Persian calendar, where a week runs from Saturday to Friday. Days of week are
+ * numbered 1 for Saturday to 7 for Friday.
+ *
+ * <p>Weeks of year are counted like ISO weeks: week 1 is the week containing 1 Farvardin, and
+ * the last days of Esfand falling in that week belong to week 1 of the next year. So every
+ * Saturday to Friday week has exactly one week key, {@code weekBasedYear * 100 + weekOfYear}, for
+ * example {@code 140301}, which sorts in calendar order and suits weekly aggregation. A year has
+ * 52 or 53 weeks.
+ *
+ * <p>Methods taking a {@code long} work on epoch days, the ones ending in {@code OfDate} on packed
+ * {@code yyyyMMdd} Persian dates. All methods are static, constant time, allocation free and
+ * thread-safe.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public final class PersianWeekFields {
+
+  private PersianWeekFields() {
+    throw new IllegalStateException("Utility Class, cannot be instantiate");
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return day of week, 1 for Saturday to 7 for Friday
+   */
+  public static int dayOfWeek(long epochDay) {
+    // 1970-01-01 was a Thursday, the 6th day of the Persian week
+    return (int) Math.floorMod(epochDay + 5, 7L) + 1;
+  }
+
+  /**
+   * @param dayOfWeek ISO day of week
+   * @return Persian day of week, 1 for Saturday to 7 for Friday
+   */
+  public static int dayOfWeek(DayOfWeek dayOfWeek) {
+    return (dayOfWeek.getValue() + 1) % 7 + 1;
+  }
+
+  /**
+   * @param dayOfWeek Persian day of week, 1 for Saturday to 7 for Friday
+   * @return ISO day of week
+   */
+  public static DayOfWeek toDayOfWeek(int dayOfWeek) {
+    if (dayOfWeek < 1 || dayOfWeek > 7) {
+      throw new IllegalArgumentException("Invalid Persian day of week: " + dayOfWeek);
+    }
+    return DayOfWeek.SATURDAY.plus(dayOfWeek - 1);
+  }
+
+  /**
+   * Week of month as shown by a calendar, the row of the day in {@link PersianMonthGrid}.
+   *
+   * @param epochDay days since 1970-01-01
+   * @return week of the Persian month, 1 to 6
+   */
+  public static int weekOfMonth(long epochDay) {
+    return weekOfMonthOfDate(PersianCalendarMath.fromEpochDay(epochDay));
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return year the week of the day belongs to, the next Persian year for the last days of
+   *     Esfand in the week of Nowruz
+   */
+  public static int weekBasedYear(long epochDay) {
+    return PersianCalendarMath.yearOfEpochDay(startOfWeek(epochDay) + 6);
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return week of the week based year, 1 to 53
+   */
+  public static int weekOfYear(long epochDay) {
+    long startOfWeek = startOfWeek(epochDay);
+    int year = PersianCalendarMath.yearOfEpochDay(startOfWeek + 6);
+    return (int) ((startOfWeek - startOfFirstWeek(year)) / 7) + 1;
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return {@code weekBasedYear * 100 + weekOfYear}
+   */
+  public static int weekKey(long epochDay) {
+    long startOfWeek = startOfWeek(epochDay);
+    int year = PersianCalendarMath.yearOfEpochDay(startOfWeek + 6);
+    return year * 100 + (int) ((startOfWeek - startOfFirstWeek(year)) / 7) + 1;
+  }
+
+  /**
+   * @param epochDay days since 1970-01-01
+   * @return epoch day of the Saturday starting the week of the day
+   */
+  public static long startOfWeek(long epochDay) {
+    return epochDay - Math.floorMod(epochDay + 5, 7L);
+  }
+
+  /**
+   * @param weekKey {@code weekBasedYear * 100 + weekOfYear}
+   * @return epoch day of the Saturday starting the week
+   */
+  public static long startOfWeekKey(int weekKey) {
+    int year = weekKey / 100;
+    int week = weekKey % 100;
+    if (week < 1 || week > weeksInYear(year)) {
+      throw new IllegalArgumentException("Invalid Persian week key: " + weekKey);
+    }
+    return startOfFirstWeek(year) + (week - 1) * 7L;
+  }
+
+  /**
+   * @param year Persian year
+   * @return number of weeks of the week based year, 52 or 53
+   */
+  public static int weeksInYear(int year) {
+    return (int) ((startOfFirstWeek(year + 1) - startOfFirstWeek(year)) / 7);
+  }
+
+  /**
+   * @param date Persian date as {@code yyyyMMdd}
+   * @return day of week, 1 for Saturday to 7 for Friday
+   */
+  public static int dayOfWeekOfDate(int date) {
+    return dayOfWeek(PersianCalendarMath.toEpochDay(date));
+  }
+
+  /**
+   * @param date Persian date as {@code yyyyMMdd}
+   * @return week of the Persian month, 1 to 6
+   */
+  public static int weekOfMonthOfDate(int date) {
+    long firstOfMonth =
+        PersianCalendarMath.toEpochDay(
+            PersianCalendarMath.year(date), PersianCalendarMath.month(date), 1);
+    return (dayOfWeek(firstOfMonth) + PersianCalendarMath.day(date) - 2) / 7 + 1;
+  }
+
+  /**
+   * @param date Persian date as {@code yyyyMMdd}
+   * @return week of the week based year, 1 to 53
+   */
+  public static int weekOfYearOfDate(int date) {
+    return weekOfYear(PersianCalendarMath.toEpochDay(date));
+  }
+
+  /**
+   * @param date Persian date as {@code yyyyMMdd}
+   * @return {@code weekBasedYear * 100 + weekOfYear}
+   */
+  public static int weekKeyOfDate(int date) {
+    return weekKey(PersianCalendarMath.toEpochDay(date));
+  }
+
+  /**
+   * Days of week of {@code epochDays[i]} into {@code out[i]}.
+   *
+   * @param epochDays days since 1970-01-01
+   * @param out destination, at least as long as {@code epochDays}
+   */
+  public static void daysOfWeek(long[] epochDays, int[] out) {
+    checkLength(epochDays.length, out);
+    for (int i = 0; i < epochDays.length; i++) {
+      out[i] = (int) Math.floorMod(epochDays[i] + 5, 7L) + 1;
+    }
+  }
+
+  /**
+   * Week keys of {@code epochDays[i]} into {@code out[i]}. Sorted input is cheapest, the bounds of
+   * the current week are reused until a day falls outside them.
+   *
+   * @param epochDays days since 1970-01-01
+   * @param out destination, at least as long as {@code epochDays}
+   */
+  public static void weekKeys(long[] epochDays, int[] out) {
+    checkLength(epochDays.length, out);
+    long weekStart = 1;
+    long weekEnd = 0;
+    int key = 0;
+    for (int i = 0; i < epochDays.length; i++) {
+      long epochDay = epochDays[i];
+      if (epochDay < weekStart || epochDay >= weekEnd) {
+        weekStart = startOfWeek(epochDay);
+        weekEnd = weekStart + 7;
+        key = weekKey(weekStart);
+      }
+      out[i] = key;
+    }
+  }
+
+  /**
+   * Week keys of the packed Persian dates {@code dates[i]} into {@code out[i]}.
+   *
+   * @param dates Persian dates as {@code yyyyMMdd}
+   * @param out destination, at least as long as {@code dates}
+   */
+  public static void weekKeysOfDates(int[] dates, int[] out) {
+    checkLength(dates.length, out);
+    int previous = 0;
+    int key = 0;
+    for (int i = 0; i < dates.length; i++) {
+      if (dates[i] != previous || i == 0) {
+        previous = dates[i];
+        key = weekKeyOfDate(previous);
+      }
+      out[i] = key;
+    }
+  }
+
+  private static long startOfFirstWeek(int year) {
+    return startOfWeek(PersianCalendarMath.firstDayOfYear(year));
+  }
+
+  private static void checkLength(int length, int[] out) {
+    if (out.length < length) {
+      throw new IllegalArgumentException(
+          "out length " + out.length + " is less than input length " + length);
+    }
+  }
+}
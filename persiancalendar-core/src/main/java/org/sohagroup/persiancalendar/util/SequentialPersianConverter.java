@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+/**
+ * Cursor-style converter for time-ordered input such as logs, Kafka partitions or time ordered
+ * database scans, where consecutive instants mostly fall on the same Persian day. It remembers the
+ * {@code [start, end)} epoch millis range of the current day and the output already formatted for
+ * it; an instant inside that range costs two comparisons and overwriting the time of day digits.
+ * Any other instant moves the cursor to its day, so unsorted input is still converted correctly,
+ * only slower.
+ *
+ * <p>When the date-time pattern has a variable width time field, such as {@code H}, only the day
+ * lookup is saved and the value is formatted in full.
+ *
+ * <p>Instances are not thread-safe, use one per thread or stream.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class SequentialPersianConverter {
+  private final PersianDateFormatter format;
+  private final ZoneRules rules;
+  private final boolean templated;
+  private final int[] timeFieldPositions;
+  private final StringBuilder scratch = new StringBuilder(32);
+
+  private long rangeStart = 1;
+  private long rangeEnd = 0;
+  /** Epoch millis of the local midnight of the current day, may be before rangeStart. */
+  private long dayStart;
+  private long offsetMillis;
+  private char[] template = new char[0];
+  private int templateLength;
+
+  /**
+   * Uses the date-time format and zone of a converter.
+   *
+   * @param converter the converter to follow
+   */
+  public SequentialPersianConverter(PersianDateConverter converter) {
+    this(converter.getDateTimeFormatter(), converter.getZone());
+  }
+
+  /**
+   * @param format the output format
+   * @param zone the zone of the output
+   */
+  public SequentialPersianConverter(PersianDateFormatter format, ZoneId zone) {
+    this.format = Objects.requireNonNull(format, "format param must not be null");
+    this.rules = Objects.requireNonNull(zone, "zone param must not be null").getRules();
+    this.templated = format.hasFixedWidthTimeFields();
+    this.timeFieldPositions = new int[format.timeFieldCount()];
+  }
+
+  /**
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @return the Persian date-time
+   */
+  public String format(long epochMillis) {
+    if (epochMillis < rangeStart || epochMillis >= rangeEnd) {
+      moveTo(epochMillis);
+    }
+    if (!templated) {
+      return format.format(epochMillis + offsetMillis);
+    }
+    format.writeTimeFields((int) (epochMillis - dayStart), template, timeFieldPositions);
+    return new String(template, 0, templateLength);
+  }
+
+  /**
+   * @param instant the instant to convert
+   * @return the Persian date-time
+   */
+  public String format(Instant instant) {
+    Objects.requireNonNull(instant, "instant param must not be null");
+    return format(instant.toEpochMilli());
+  }
+
+  /**
+   * Appends the Persian date-time without creating any object while the cursor stays in a day.
+   *
+   * @param epochMillis milliseconds since 1970-01-01T00:00:00Z
+   * @param out destination
+   */
+  public void formatTo(long epochMillis, StringBuilder out) {
+    if (epochMillis < rangeStart || epochMillis >= rangeEnd) {
+      moveTo(epochMillis);
+    }
+    if (!templated) {
+      format.formatTo(epochMillis + offsetMillis, out);
+      return;
+    }
+    format.writeTimeFields((int) (epochMillis - dayStart), template, timeFieldPositions);
+    out.append(template, 0, templateLength);
+  }
+
+  /**
+   * Sets the range to the part of the local day of {@code epochMillis} that has the same offset,
+   * and formats the template for it.
+   */
+  private void moveTo(long epochMillis) {
+    Instant instant = Instant.ofEpochMilli(epochMillis);
+    offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+    long localDay = Math.floorDiv(epochMillis + offsetMillis, MILLIS_PER_DAY);
+    dayStart = localDay * MILLIS_PER_DAY - offsetMillis;
+    rangeStart = dayStart;
+    rangeEnd = dayStart + MILLIS_PER_DAY;
+    if (!rules.isFixedOffset()) {
+      ZoneOffsetTransition previous =
+          rules.previousTransition(Instant.ofEpochMilli(epochMillis + 1));
+      if (previous != null && previous.toEpochSecond() * 1000L > rangeStart) {
+        rangeStart = previous.toEpochSecond() * 1000L;
+      }
+      ZoneOffsetTransition next = rules.nextTransition(instant);
+      if (next != null && next.toEpochSecond() * 1000L < rangeEnd) {
+        rangeEnd = next.toEpochSecond() * 1000L;
+      }
+    }
+    if (templated) {
+      scratch.setLength(0);
+      format.formatTemplate(localDay * MILLIS_PER_DAY, scratch, timeFieldPositions);
+      templateLength = scratch.length();
+      if (template.length < templateLength) {
+        template = new char[templateLength];
+      }
+      scratch.getChars(0, templateLength, template, 0);
+    }
+  }
+}
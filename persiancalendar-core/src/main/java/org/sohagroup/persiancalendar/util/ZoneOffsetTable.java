@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Offsets and transitions of a zone from 1800 to 2200 in sorted arrays, so shifting an instant to
+ * the wall clock or resolving a wall clock time is a binary search, with no {@code Instant},
+ * {@code ZonedDateTime} or rule evaluation. Values outside that range use the {@link ZoneRules}.
+ *
+ * <p>Tables are immutable and cached per zone; the cache keeps the last {@value #MAX_CACHED}
+ * zones used and evicts the least recently used one beyond that. The last table returned is also
+ * kept aside, so asking again for the same zone does not take the lock of the cache.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+final class ZoneOffsetTable {
+  static final int MAX_CACHED = 64;
+
+  /** 1800-01-01T00:00:00Z and 2200-01-01T00:00:00Z. */
+  private static final long START_MILLIS = -5_364_662_400_000L;
+  private static final long END_MILLIS = 7_258_118_400_000L;
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  /** Tables of the zones asked for, least recently used first; guarded by itself. */
+  private static final Map<ZoneId, ZoneOffsetTable> CACHE =
+      new LinkedHashMap<ZoneId, ZoneOffsetTable>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ZoneId, ZoneOffsetTable> eldest) {
+          return size() > MAX_CACHED;
+        }
+      };
+
+  private static volatile ZoneOffsetTable last;
+
+  private final ZoneId zone;
+  private final ZoneRules rules;
+  /** Epoch millis of every transition. */
+  private final long[] transitions;
+  /** Offset in millis before the first transition, then after each transition. */
+  private final int[] offsets;
+  /** Wall clock window of each transition, the gap or overlap is {@code [start, end)}. */
+  private final long[] localStarts;
+  private final long[] localEnds;
+
+  private ZoneOffsetTable(ZoneId zone) {
+    this.zone = zone;
+    this.rules = zone.getRules();
+    if (rules.isFixedOffset()) {
+      transitions = new long[0];
+      offsets = new int[] {rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000};
+    } else {
+      long[] times = new long[64];
+      int[] after = new int[65];
+      after[0] = rules.getOffset(Instant.ofEpochMilli(START_MILLIS)).getTotalSeconds() * 1000;
+      int count = 0;
+      ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(START_MILLIS));
+      while (transition != null && transition.toEpochSecond() * 1000L < END_MILLIS) {
+        if (count == times.length) {
+          times = Arrays.copyOf(times, count * 2);
+          after = Arrays.copyOf(after, count * 2 + 1);
+        }
+        times[count] = transition.toEpochSecond() * 1000L;
+        after[++count] = transition.getOffsetAfter().getTotalSeconds() * 1000;
+        transition = rules.nextTransition(transition.getInstant());
+      }
+      transitions = Arrays.copyOf(times, count);
+      offsets = Arrays.copyOf(after, count + 1);
+    }
+    localStarts = new long[transitions.length];
+    localEnds = new long[transitions.length];
+    for (int i = 0; i < transitions.length; i++) {
+      localStarts[i] = transitions[i] + Math.min(offsets[i], offsets[i + 1]);
+      localEnds[i] = transitions[i] + Math.max(offsets[i], offsets[i + 1]);
+    }
+  }
+
+  /**
+   * @param zone the zone
+   * @return the cached table of the zone
+   */
+  static ZoneOffsetTable of(ZoneId zone) {
+    Objects.requireNonNull(zone, "zone param must not be null");
+    ZoneOffsetTable table = last;
+    if (table != null && table.zone.equals(zone)) {
+      return table;
+    }
+    synchronized (CACHE) {
+      table = CACHE.get(zone);
+      if (table == null) {
+        table = new ZoneOffsetTable(zone);
+        CACHE.put(zone, table);
+      }
+    }
+    last = table;
+    return table;
+  }
+
+  ZoneId getZone() {
+    return zone;
+  }
+
+  /** @return offset in millis of the zone at an instant */
+  int offsetMillis(long epochMillis) {
+    if (transitions.length == 0) {
+      return offsets[0];
+    }
+    if (epochMillis < START_MILLIS || epochMillis >= END_MILLIS) {
+      return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000;
+    }
+    int index = Arrays.binarySearch(transitions, epochMillis);
+    // a transition applies from its own instant on
+    return offsets[index >= 0 ? index + 1 : -index - 1];
+  }
+
+  /** Shifts an instant to the wall clock of the zone. */
+  long toLocalMillis(long epochMillis) {
+    return epochMillis + offsetMillis(epochMillis);
+  }
+
+  /**
+   * Resolves a wall clock time. A time in a gap is moved forward by the length of the gap, like
+   * {@link ZonedDateTime#ofLocal}.
+   *
+   * @param localMillis local epoch millis
+   * @param laterAtOverlap whether a time in an overlap takes the later offset, like ICU, or the
+   *     earlier one, like {@link LocalDateTime#atZone}
+   * @return epoch millis
+   */
+  long toEpochMillis(long localMillis, boolean laterAtOverlap) {
+    if (transitions.length == 0) {
+      return localMillis - offsets[0];
+    }
+    if (localMillis < START_MILLIS + MILLIS_PER_DAY || localMillis >= END_MILLIS - MILLIS_PER_DAY) {
+      return resolve(localMillis, laterAtOverlap);
+    }
+    int index = Arrays.binarySearch(localStarts, localMillis);
+    int transition = index >= 0 ? index : -index - 2;
+    if (transition < 0) {
+      return localMillis - offsets[0];
+    }
+    int before = offsets[transition];
+    int after = offsets[transition + 1];
+    if (localMillis >= localEnds[transition]) {
+      return localMillis - after;
+    }
+    // in the gap or the overlap of the transition
+    return localMillis - (after < before && laterAtOverlap ? after : before);
+  }
+
+  private long resolve(long localMillis, boolean laterAtOverlap) {
+    LocalDateTime local =
+        LocalDateTime.ofEpochSecond(
+            Math.floorDiv(localMillis, 1000L),
+            (int) Math.floorMod(localMillis, 1000L) * 1_000_000,
+            ZoneOffset.UTC);
+    ZonedDateTime zoned = ZonedDateTime.ofLocal(local, zone, null);
+    return (laterAtOverlap ? zoned.withLaterOffsetAtOverlap() : zoned).toInstant().toEpochMilli();
+  }
+}
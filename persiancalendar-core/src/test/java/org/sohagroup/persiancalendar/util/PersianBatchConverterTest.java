@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianBatchConverterTest {
+  private static final long START = Instant.parse("2021-03-20T00:00:00Z").toEpochMilli();
+
+  private final PersianDateConverter converter = new PersianDateConverter();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void accept_DeliversBatchesInOrder() {
+    List<String> output = new ArrayList<>();
+    List<Integer> sizes = new ArrayList<>();
+    try (PersianBatchConverter batcher =
+        new PersianBatchConverter(
+            converter,
+            executor,
+            100,
+            8,
+            batch -> {
+              sizes.add(batch.size());
+              output.addAll(batch);
+            })) {
+      for (int i = 0; i < 10_050; i++) {
+        batcher.accept(START + i * 97_000L);
+      }
+      batcher.flush();
+      assertEquals(101, batcher.getBatchCount());
+      assertEquals(10_050, batcher.getElementCount());
+      assertEquals(10_050 / 101.0, batcher.getAverageBatchSize(), 1e-9);
+      assertTrue(batcher.getPeakPendingBatches() <= batcher.getMaxPendingBatches());
+      batcher.accept(Instant.ofEpochMilli(START));
+    }
+    assertEquals(10_051, output.size());
+    for (int i = 0; i < 10_050; i++) {
+      assertEquals(converter.formatDateTime(START + i * 97_000L), output.get(i));
+    }
+    assertEquals(50, sizes.get(100));
+    assertEquals(1, sizes.get(101));
+  }
+
+  @Test
+  void accept_BlocksWhileDownstreamIsBehind() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    PersianBatchConverter batcher =
+        new PersianBatchConverter(
+            converter,
+            executor,
+            10,
+            2,
+            batch -> {
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    Thread producer =
+        new Thread(
+            () -> {
+              for (int i = 0; i < 40; i++) {
+                batcher.accept(START + i);
+              }
+            });
+    producer.start();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (producer.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(Thread.State.WAITING, producer.getState());
+    assertEquals(2, batcher.getPendingBatches());
+    assertEquals(2, batcher.getBatchCount());
+    release.countDown();
+    producer.join(10_000);
+    batcher.close();
+    assertEquals(4, batcher.getBatchCount());
+    assertEquals(0, batcher.getPendingBatches());
+    assertThrows(IllegalStateException.class, () -> batcher.accept(START));
+  }
+
+  @Test
+  void close_ReportsDownstreamFailure() {
+    PersianBatchConverter batcher =
+        new PersianBatchConverter(
+            converter,
+            executor,
+            2,
+            1,
+            batch -> {
+              throw new IllegalArgumentException("expected by the test");
+            });
+    batcher.accept(START);
+    batcher.accept(START);
+    IllegalStateException failure = assertThrows(IllegalStateException.class, batcher::flush);
+    assertTrue(failure.getCause() instanceof IllegalArgumentException);
+    assertThrows(IllegalStateException.class, () -> batcher.accept(START));
+    assertThrows(IllegalStateException.class, batcher::close);
+  }
+}
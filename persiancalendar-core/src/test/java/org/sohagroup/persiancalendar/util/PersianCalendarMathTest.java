@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianCalendarMathTest {
+
+  @Test
+  void fromEpochDay_KnownDates() {
+    assertEquals(14020101, PersianCalendarMath.fromEpochDay(LocalDate.of(2023, 3, 21).toEpochDay()));
+    assertEquals(14030101, PersianCalendarMath.fromEpochDay(LocalDate.of(2024, 3, 20).toEpochDay()));
+    assertEquals(14031230, PersianCalendarMath.fromEpochDay(LocalDate.of(2025, 3, 20).toEpochDay()));
+    assertEquals(13481011, PersianCalendarMath.fromEpochDay(0));
+  }
+
+  @Test
+  void toEpochDay_RoundTripsEveryDay() {
+    long first = PersianCalendarMath.firstDayOfYear(1);
+    long last = PersianCalendarMath.firstDayOfYear(3001) - 1;
+    int previous = 0;
+    for (long epochDay = first; epochDay <= last; epochDay++) {
+      int packed = PersianCalendarMath.fromEpochDay(epochDay);
+      assertEquals(epochDay, PersianCalendarMath.toEpochDay(packed));
+      assertTrue(packed > previous, "packed dates must increase");
+      assertTrue(
+          PersianCalendarMath.isValid(
+              PersianCalendarMath.year(packed),
+              PersianCalendarMath.month(packed),
+              PersianCalendarMath.day(packed)));
+      previous = packed;
+    }
+  }
+
+  @Test
+  void lengthOfYear_MatchesYearStarts() {
+    for (int year = -100; year <= 3000; year++) {
+      assertEquals(
+          PersianCalendarMath.firstDayOfYear(year + 1) - PersianCalendarMath.firstDayOfYear(year),
+          PersianCalendarMath.lengthOfYear(year),
+          "year " + year);
+    }
+    assertTrue(PersianCalendarMath.isLeapYear(1403));
+    assertFalse(PersianCalendarMath.isLeapYear(1402));
+  }
+
+  @Test
+  void toEpochDay_RollsOverLikeLenientCalendar() {
+    assertEquals(PersianCalendarMath.toEpochDay(1404, 1, 1), PersianCalendarMath.toEpochDay(1403, 13, 1));
+    assertEquals(PersianCalendarMath.toEpochDay(1402, 11, 30), PersianCalendarMath.toEpochDay(1403, 0, 0));
+  }
+
+  @Test
+  void lengthOfMonth_InvalidMonth() {
+    assertThrows(IllegalArgumentException.class, () -> PersianCalendarMath.lengthOfMonth(1403, 13));
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Allocation budgets of the conversion hot paths, in bytes per call as reported by {@code
+ * com.sun.management.ThreadMXBean#getThreadAllocatedBytes}. A budget covers the returned value
+ * plus a small margin, so a change that brings back {@code Date.from} or {@code ZonedDateTime}
+ * churn fails here instead of showing up as GC pressure in production.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianDateConverterAllocationTest {
+  private static final int WARM_UP = 50_000;
+  private static final int MEASURED = 20_000;
+
+  private static com.sun.management.ThreadMXBean threads;
+
+  private final PersianDateConverter converter =
+      new PersianDateConverter(
+          new DateConverterConfig.Builder()
+              .withDateFormat("yyyy-MM-dd")
+              .withDateTimeFormat("yyyy-MM-dd HH:mm:ss")
+              .build());
+  private final ZoneId tehran = ZoneId.of(ASIA_TEHRAN_ZONE);
+  private final Instant[] instants = new Instant[1024];
+  private final LocalDate[] dates = new LocalDate[1024];
+  private final LocalDateTime[] dateTimes = new LocalDateTime[1024];
+  private final String[] persianDates = new String[1024];
+  private final String[] persianDateTimes = new String[1024];
+  private final String[] isoDates = new String[1024];
+
+  @BeforeAll
+  static void checkSupport() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  PersianDateConverterAllocationTest() {
+    for (int i = 0; i < 1024; i++) {
+      instants[i] = Instant.ofEpochSecond(1_700_000_000L + i * 7_919L * 60);
+      dates[i] = LocalDate.of(2024, 1, 1).plusDays(i);
+      dateTimes[i] = dates[i].atTime(i % 24, i % 60, i % 59);
+      persianDates[i] = converter.toPersianDate(instants[i]);
+      persianDateTimes[i] = converter.toPersianDateTime(instants[i]);
+      isoDates[i] = dates[i].toString();
+    }
+  }
+
+  /** Average bytes allocated by one call, once the call is compiled. */
+  private static long bytesPerCall(IntFunction<Object> call) {
+    long thread = Thread.currentThread().getId();
+    Object sink = null;
+    for (int i = 0; i < WARM_UP; i++) {
+      sink = call.apply(i & 1023);
+    }
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < 3; round++) {
+      long before = threads.getThreadAllocatedBytes(thread);
+      for (int i = 0; i < MEASURED; i++) {
+        sink = call.apply(i & 1023);
+      }
+      best = Math.min(best, (threads.getThreadAllocatedBytes(thread) - before) / MEASURED);
+    }
+    assertNotNull(sink);
+    return best;
+  }
+
+  private static void assertBudget(long budget, IntFunction<Object> call) {
+    long bytes = bytesPerCall(call);
+    assertTrue(bytes <= budget, "allocated " + bytes + " bytes per call, budget is " + budget);
+  }
+
+  @Test
+  void toPersianDate_Instant() {
+    assertBudget(144, i -> converter.toPersianDate(instants[i]));
+  }
+
+  @Test
+  void toPersianDate_LocalDate() {
+    assertBudget(144, i -> converter.toPersianDate(dates[i]));
+  }
+
+  @Test
+  void toPersianDate_IsoString() {
+    assertBudget(640, i -> converter.toPersianDate(isoDates[i]));
+  }
+
+  @Test
+  void toPersianDateTime_Instant() {
+    assertBudget(160, i -> converter.toPersianDateTime(instants[i]));
+  }
+
+  @Test
+  void toPersianDateTime_LocalDateTime() {
+    assertBudget(160, i -> converter.toPersianLocalDateTime(dateTimes[i]));
+  }
+
+  @Test
+  void toGregorianDate() {
+    assertBudget(64, i -> converter.toGregorianDate(persianDates[i], tehran));
+  }
+
+  @Test
+  void localDateDuration() {
+    assertBudget(
+        64, i -> converter.localDateDuration(persianDates[i], persianDates[1023 - i], ChronoUnit.DAYS));
+  }
+
+  @Test
+  void localDateTimeDuration() {
+    assertBudget(
+        64,
+        i ->
+            converter.localDateTimeDuration(
+                persianDateTimes[i], persianDateTimes[1023 - i], ChronoUnit.SECONDS));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianDateFormatterTest {
+  // 2024-03-21T01:01:01.234 on the wall clock, 1403/01/02 Thursday
+  private static final long LOCAL_MILLIS =
+      LocalDateTime.of(2024, 3, 21, 1, 1, 1, 234_000_000).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+  private static String format(String pattern) {
+    return PersianDateFormatter.ofPattern(pattern).format(LOCAL_MILLIS);
+  }
+
+  @Test
+  void format_MatchesIcuOutput() {
+    // expected values are taken from ICU SimpleDateFormat with Locale.US and persian calendar
+    assertEquals("1403/01/02T01:01:01", format("yyyy/MM/dd'T'HH:mm:ss"));
+    assertEquals("1403/1/2 1:01 AM", format("y/M/d h:mm a"));
+    assertEquals("03-02 Thu Thursday", format("yy-dd EEE EEEE"));
+    assertEquals("2 2 23 234 2340 1 1", format("D S SS SSS SSSS k K"));
+    assertEquals("14030102", format("yyyyMMdd"));
+    assertEquals("'1403o'clock", format("''yyyy'o''clock'"));
+  }
+
+  @Test
+  void parse_IsLenientLikeIcu() throws ParseException {
+    PersianDateFormatter dateTime = PersianDateFormatter.ofPattern("yyyy/MM/dd'T'HH:mm:ss");
+    PersianDateFormatter date = PersianDateFormatter.ofPattern("yyyy/MM/dd");
+    long start = PersianCalendarMath.toEpochDay(1403, 1, 1) * 86_400_000L;
+    assertEquals(start, dateTime.parse("1403/01/01 00:00:00"));
+    assertEquals(start, dateTime.parse("1403/01/01T00:00:00"));
+    assertEquals(start, date.parse("1403/1/1"));
+    assertEquals(start, date.parse(" 1403/01/01xyz"));
+    assertEquals(start, PersianDateFormatter.ofPattern("yyyyMMdd").parse("14030101"));
+    assertEquals("1404/01/01", date.format(date.parse("1403/13/01")));
+    assertEquals("1402/11/30", date.format(date.parse("1403/00/00")));
+    assertThrows(ParseException.class, () -> dateTime.parse("1403/01/01"));
+    assertThrows(ParseException.class, () -> date.parse("1403-01-01"));
+  }
+
+  @Test
+  void parse_RoundTripsFormat() throws ParseException {
+    PersianDateFormatter format = PersianDateFormatter.ofPattern("yyyy-MM-dd hh:mm:ss.SSS a");
+    for (long millis = LOCAL_MILLIS; millis < LOCAL_MILLIS + 86_400_000L * 400; millis += 3_599_999L) {
+      assertEquals(millis, format.parse(format.format(millis)));
+    }
+  }
+
+  @Test
+  void ofPattern_RejectsExoticPatterns() {
+    assertFalse(PersianDateFormatter.isSupported("yyyy MMMM dd"));
+    assertFalse(PersianDateFormatter.isSupported("yyyy/MM/dd G"));
+    assertFalse(PersianDateFormatter.isSupported("yyyy/MM/dd z"));
+    assertThrows(IllegalArgumentException.class, () -> PersianDateFormatter.ofPattern("yyyy'MM"));
+    assertTrue(PersianDateFormatter.isSupported(DEFAULT_PERSIAN_DATE_TIME_FORMAT));
+  }
+}
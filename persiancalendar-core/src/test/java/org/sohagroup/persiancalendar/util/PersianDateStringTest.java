@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianDateStringTest {
+  private static final long EPOCH_MILLIS = Instant.parse("2024-03-20T10:15:30Z").toEpochMilli();
+
+  @Test
+  void toString_FormatsOnceOnFirstRead() {
+    AtomicInteger calls = new AtomicInteger();
+    PersianDateString value =
+        PersianDateString.of(
+            EPOCH_MILLIS,
+            epochMillis -> {
+              calls.incrementAndGet();
+              return Long.toString(epochMillis);
+            });
+    assertEquals(0, calls.get());
+    assertFalse(value.isFormatted());
+    assertEquals(Long.toString(EPOCH_MILLIS).length(), value.length());
+    assertEquals('1', value.charAt(0));
+    assertEquals(Long.toString(EPOCH_MILLIS), value.toString());
+    assertEquals("171", value.subSequence(0, 3).toString());
+    assertEquals(1, calls.get());
+    assertTrue(value.isFormatted());
+    assertEquals(EPOCH_MILLIS, value.getEpochMillis());
+  }
+
+  @Test
+  void appendTo_WritesWithoutKeepingText() throws Exception {
+    PersianDateFormatter formatter = PersianDateFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+    PersianDateString value =
+        PersianDateString.of(
+            EPOCH_MILLIS, PersianDateString.formatIn(formatter, ZoneId.of("Asia/Tehran")));
+    assertEquals("1403/01/01 13:45:30", value.appendTo(new StringWriter()).toString());
+    assertFalse(value.isFormatted());
+    assertEquals("[1403/01/01 13:45:30]", "[" + value + "]");
+    assertEquals("1403/01/01 13:45:30", value.appendTo(new StringBuilder()).toString());
+  }
+
+  @Test
+  void converter_LazyValuesMatchEagerOnes() {
+    PersianDateConverter converter = new PersianDateConverter();
+    Instant instant = Instant.ofEpochMilli(EPOCH_MILLIS);
+    assertEquals(converter.toPersianDate(instant), converter.toLazyPersianDate(instant).toString());
+    assertEquals(
+        converter.toPersianDateTime(instant), converter.toLazyPersianDateTime(instant).toString());
+    assertEquals(
+        converter.toLazyPersianDate(EPOCH_MILLIS), converter.toLazyPersianDate(EPOCH_MILLIS + 1));
+    assertEquals(
+        converter.toLazyPersianDate(EPOCH_MILLIS).hashCode(),
+        converter.formatDate(EPOCH_MILLIS).hashCode());
+    assertNotEquals(converter.toLazyPersianDate(EPOCH_MILLIS), converter.formatDate(EPOCH_MILLIS));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.text.ParseException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianDateTableTest {
+  @TempDir Path directory;
+
+  @Test
+  void format_MatchesFormatterForEveryDay() throws Exception {
+    assertTableMatches(PersianDateFormatter.ofPattern("yyyy/MM/dd"));
+  }
+
+  @Test
+  void format_VariableWidthAndNonAsciiPattern() throws Exception {
+    assertTableMatches(PersianDateFormatter.ofPattern("d/M/yyyy 'روز' D"));
+  }
+
+  @Test
+  void write_ReplacesTableAndRejectsInvalidInput() throws Exception {
+    Path file = directory.resolve("dates.pdt");
+    PersianDateTable.write(file, PersianDateFormatter.ofPattern("yyyy-MM-dd"), 1402, 1402);
+    PersianDateTable first = PersianDateTable.open(file);
+    PersianDateTable.write(file, PersianDateFormatter.ofPattern("yyyy/MM/dd"), 1403, 1403);
+    PersianDateTable second = PersianDateTable.open(file);
+    assertEquals("1402-01-01", first.format(first.getFirstEpochDay()));
+    assertEquals("1403/01/01", second.format(second.getFirstEpochDay()));
+    assertEquals(365, first.getLastEpochDay() - first.getFirstEpochDay() + 1);
+    assertEquals(366, second.getLastEpochDay() - second.getFirstEpochDay() + 1);
+    assertThrows(IllegalArgumentException.class, () -> second.format(first.getFirstEpochDay()));
+    assertThrows(ParseException.class, () -> second.parse("1402/12/29"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PersianDateTable.write(file, PersianDateFormatter.ofPattern("yyyy HH"), 1403, 1403));
+
+    Path truncated = directory.resolve("truncated.pdt");
+    byte[] bytes = Files.readAllBytes(file);
+    Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+    assertThrows(IOException.class, () -> PersianDateTable.open(truncated));
+    Files.write(truncated, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IOException.class, () -> PersianDateTable.open(truncated));
+  }
+
+  @Test
+  void write_TableIsReadableByEveryUser() throws Exception {
+    assumeTrue(
+        Files.getFileStore(directory).supportsFileAttributeView(PosixFileAttributeView.class));
+    Path file = directory.resolve("dates.pdt");
+    PersianDateTable.write(file, PersianDateFormatter.ofPattern("yyyy/MM/dd"), 1403, 1403);
+    assertEquals("rw-r--r--", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+  }
+
+  @Test
+  void main_CreatesMissingDirectories() throws Exception {
+    Path file = directory.resolve("missing/tables/dates.pdt");
+    PersianDateTable.main(new String[] {file.toString(), "yyyy/MM/dd", "1403", "1403"});
+    PersianDateTable table = PersianDateTable.open(file);
+    assertEquals("1403/01/01", table.format(table.getFirstEpochDay()));
+  }
+
+  private void assertTableMatches(PersianDateFormatter format) throws Exception {
+    Path file = directory.resolve("table.pdt");
+    PersianDateTable.write(file, format, 1300, 1500);
+    PersianDateTable table = PersianDateTable.open(file);
+    assertEquals(format.getPattern(), table.getPattern());
+    assertEquals(PersianCalendarMath.firstDayOfYear(1300), table.getFirstEpochDay());
+    assertEquals(PersianCalendarMath.firstDayOfYear(1501) - 1, table.getLastEpochDay());
+    StringBuilder out = new StringBuilder();
+    for (long day = table.getFirstEpochDay(); day <= table.getLastEpochDay(); day++) {
+      String expected = format.format(day * MILLIS_PER_DAY);
+      assertEquals(expected, table.format(day));
+      out.setLength(0);
+      table.formatTo(day, out);
+      assertEquals(expected, out.toString());
+      assertEquals(day, table.parse(expected));
+    }
+    assertFalse(table.contains(table.getFirstEpochDay() - 1));
+    assertFalse(table.contains(table.getLastEpochDay() + 1));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianIsoTranscoderTest {
+  private final PersianDateConverter converter = new PersianDateConverter();
+  private final PersianIsoTranscoder transcoder = new PersianIsoTranscoder(converter);
+
+  @Test
+  void transcode_MatchesConverter() {
+    LocalDateTime time = LocalDateTime.of(2015, 1, 1, 0, 0);
+    for (int i = 0; i < 5000; i++) {
+      time = time.plusMinutes(2_917).plusSeconds(13).plusNanos(7_000_000);
+      String date = time.toLocalDate().toString();
+      assertEquals(converter.toPersianDate(time.toLocalDate()), transcoder.transcode(date));
+      assertEquals(converter.toPersianDateTimeNoZone(time), transcoder.transcode(time.toString()));
+      OffsetDateTime offset = time.atOffset(ZoneOffset.ofHoursMinutes(-4, -30));
+      assertEquals(
+          converter.toPersianDateTime(offset.toInstant()), transcoder.transcode(offset.toString()));
+      Instant instant = time.toInstant(ZoneOffset.UTC);
+      assertEquals(converter.toPersianDateTime(instant), transcoder.transcode(instant.toString()));
+    }
+  }
+
+  @Test
+  void transcode_OtherZoneAndDaylightSavingChanges() {
+    PersianDateFormatter format = PersianDateFormatter.ofPattern("yyyy/MM/dd HH:mm:ss.SSS");
+    ZoneId newYork = ZoneId.of("America/New_York");
+    PersianIsoTranscoder inNewYork = new PersianIsoTranscoder(format, format, newYork);
+    String[] inputs = {
+      "2021-03-21T23:59:59.999", "2021-03-22T00:30", "2021-03-22T01:00",
+      "2021-09-21T23:30:00", "2021-09-22T00:00", "2024-03-10T07:30Z", "2024-11-03 05:30:00Z",
+      "2024-11-03T01:30:00-04:00", "2024-11-03T01:30:00-05:00", "2024-03-20",
+      "2024-03-10T02:30", "2024-11-03T01:30", "2024-11-03"
+    };
+    for (String input : inputs) {
+      long epochMillis;
+      if (input.length() == 10) {
+        epochMillis = LocalDate.parse(input).atStartOfDay(newYork).toInstant().toEpochMilli();
+      } else if (input.endsWith("Z") || input.lastIndexOf('-') > 7) {
+        epochMillis = OffsetDateTime.parse(input.replace(' ', 'T')).toInstant().toEpochMilli();
+      } else {
+        epochMillis = LocalDateTime.parse(input).atZone(newYork).toInstant().toEpochMilli();
+      }
+      String expected = format.format(PersianDateConverter.toLocalMillis(newYork, epochMillis));
+      assertEquals(expected, inNewYork.transcode(input), input);
+    }
+  }
+
+  @Test
+  void transcode_Bytes() {
+    PersianDateFormatter literal = PersianDateFormatter.ofPattern("yyyy/MM/dd 'ساعت' HH:mm");
+    PersianIsoTranscoder withLiteral =
+        new PersianIsoTranscoder(literal, literal, ZoneId.of("Asia/Tehran"));
+    byte[] in = "{\"at\":\"2024-03-20T10:15:30+03:30\",\"x\":\"2024-02-30\"}".getBytes(
+        StandardCharsets.US_ASCII);
+    byte[] out = new byte[64];
+    int written = withLiteral.transcode(in, 7, 32, out, 2);
+    assertEquals("1403/01/01 ساعت 10:15", new String(out, 2, written, StandardCharsets.UTF_8));
+    assertEquals(-1, withLiteral.transcode(in, 39, 49, out, 0));
+    written = transcoder.transcode("2024-03-20".getBytes(StandardCharsets.US_ASCII), 0, 10, out, 0);
+    assertEquals(
+        converter.toPersianDate(LocalDate.of(2024, 3, 20)),
+        new String(out, 0, written, StandardCharsets.US_ASCII));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> withLiteral.transcode(in, 7, 32, new byte[8], 0));
+    byte[] exact = new byte["1403/01/01 ساعت 10:15".getBytes(StandardCharsets.UTF_8).length + 1];
+    assertEquals(exact.length - 1, withLiteral.transcode(in, 7, 32, exact, 1));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> withLiteral.transcode(in, 7, 32, exact, 2));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> withLiteral.transcode(in, 7, 32, exact, -1));
+  }
+
+  @Test
+  void transcode_InvalidInput() {
+    StringBuilder out = new StringBuilder("kept");
+    assertFalse(transcoder.transcodeTo("2023-02-29", 0, 10, out));
+    assertFalse(transcoder.transcodeTo("2024-04-31", 0, 10, out));
+    assertFalse(transcoder.transcodeTo("2024-03-20x", 0, 11, out));
+    assertFalse(transcoder.transcodeTo("2024-03-2", 0, 9, out));
+    assertFalse(transcoder.transcodeTo("20240320", 0, 8, out));
+    assertEquals("kept", out.toString());
+    assertTrue(transcoder.transcodeTo("2024-02-29", 0, 10, out));
+    assertThrows(IllegalArgumentException.class, () -> transcoder.transcode(""));
+    assertThrows(IllegalArgumentException.class, () -> transcoder.transcode("2024-13-01"));
+  }
+}
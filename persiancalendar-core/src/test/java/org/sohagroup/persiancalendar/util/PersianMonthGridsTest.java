@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianMonthGridsTest {
+  private final PersianMonthGrids grids = PersianMonthGrids.getDefault();
+
+  @Test
+  void get_Farvardin1403() {
+    // Act
+    PersianMonthGrid grid = grids.get(1403, 1);
+    // Assert, 1403/01/01 is Wednesday 2024-03-20
+    assertEquals(4, grid.getWeekdayOffset());
+    assertEquals(31, grid.getLengthOfMonth());
+    assertEquals(4, grid.cellOf(1));
+    assertEquals(14030101, grid.getPersianDate(4));
+    assertEquals(20240320, grid.getGregorianDatePacked(4));
+    assertEquals(LocalDate.of(2024, 3, 20), grid.getGregorianDate(4));
+    assertEquals(14021226, grid.getPersianDate(0));
+    assertFalse(grid.isInMonth(3));
+    assertTrue(grid.isInMonth(34));
+    assertFalse(grid.isInMonth(35));
+    assertEquals(14030201, grid.getPersianDate(35));
+  }
+
+  @Test
+  void get_HolidayFlags() {
+    PersianMonthGrid grid = grids.get(1403, 1);
+    for (int cell = 0; cell < PersianMonthGrid.CELLS; cell++) {
+      boolean friday = grid.getGregorianDate(cell).getDayOfWeek() == DayOfWeek.FRIDAY;
+      int date = grid.getPersianDate(cell);
+      boolean official =
+          date == 14021229 || (date >= 14030101 && date <= 14030104) || date == 14030112
+              || date == 14030113;
+      assertEquals(friday || official, grid.isHoliday(cell), "cell " + cell);
+    }
+  }
+
+  @Test
+  void get_EveryCellMatchesArithmetic() {
+    for (int year = 1300; year <= 1500; year++) {
+      for (int month = 1; month <= 12; month++) {
+        PersianMonthGrid grid = grids.get(year, month);
+        assertEquals(
+            LocalDate.ofEpochDay(PersianCalendarMath.toEpochDay(year, month, 1)).getDayOfWeek(),
+            grid.getGregorianDate(grid.getWeekdayOffset()).getDayOfWeek());
+        assertEquals(DayOfWeek.SATURDAY, grid.getGregorianDate(0).getDayOfWeek());
+        for (int day = 1; day <= grid.getLengthOfMonth(); day++) {
+          assertEquals(
+              PersianCalendarMath.pack(year, month, day), grid.getPersianDate(grid.cellOf(day)));
+        }
+      }
+    }
+  }
+
+  @Test
+  void get_IsCached() {
+    assertSame(grids.get(1403, 7), grids.get(1403, 7));
+    assertSame(grids.get(1403, 7), grids.ofEpochDay(grids.get(1403, 7).getEpochDay(10)));
+    assertThrows(IllegalArgumentException.class, () -> grids.get(1403, 13));
+  }
+}
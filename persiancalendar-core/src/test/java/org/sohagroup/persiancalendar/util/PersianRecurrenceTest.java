@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianRecurrenceTest {
+  private static final ZoneId TEHRAN = ZoneId.of(ASIA_TEHRAN_ZONE);
+
+  private static Instant tehran(int persianDate, int hour, int minute) {
+    LocalDate date = LocalDate.ofEpochDay(PersianCalendarMath.toEpochDay(persianDate));
+    return ZonedDateTime.of(date, LocalTime.of(hour, minute), TEHRAN).toInstant();
+  }
+
+  @Test
+  void next_DayOfMonthAtTime() {
+    PersianRecurrence rule = new PersianRecurrence.Builder().daysOfMonth(25).at(2, 0).build();
+    assertEquals(tehran(14030725, 2, 0), rule.next(tehran(14030710, 12, 0)));
+    assertEquals(tehran(14030825, 2, 0), rule.next(tehran(14030725, 2, 0)));
+    assertEquals(tehran(14030725, 2, 0), rule.next(tehran(14030725, 1, 59)));
+    assertEquals(tehran(14030725, 2, 0), rule.previous(tehran(14030825, 2, 0)));
+    assertEquals(tehran(14030825, 2, 0), rule.previous(tehran(14030825, 2, 1)));
+  }
+
+  @Test
+  void next_LastWorkingDayOfQuarter() {
+    PersianRecurrence rule =
+        new PersianRecurrence.Builder()
+            .months(3, 6, 9, 12)
+            .lastWorkingDayOfMonth()
+            .at(18, 0)
+            .build();
+    // 1403/03/31 is a Thursday, 1403/06/31 a Saturday, 1403/09/30 a Friday so 09/29 is taken,
+    // 1403/12/30 a Thursday
+    long[] fires = new long[4];
+    assertEquals(4, rule.nextEpochMillis(tehran(14030101, 0, 0).toEpochMilli(), fires));
+    assertEquals(tehran(14030331, 18, 0).toEpochMilli(), fires[0]);
+    assertEquals(tehran(14030631, 18, 0).toEpochMilli(), fires[1]);
+    assertEquals(tehran(14030929, 18, 0).toEpochMilli(), fires[2]);
+    assertEquals(tehran(14031230, 18, 0).toEpochMilli(), fires[3]);
+  }
+
+  @Test
+  void next_DaysOfWeekLastDaysAndWorkingDays() {
+    PersianRecurrence lastThursdayOfEsfand =
+        new PersianRecurrence.Builder()
+            .months(12)
+            .daysOfMonth(-1, -2, -3, -4, -5, -6, -7)
+            .daysOfWeek(DayOfWeek.THURSDAY)
+            .build();
+    assertEquals(tehran(14031230, 0, 0), lastThursdayOfEsfand.next(tehran(14030101, 0, 0)));
+    PersianRecurrence workingDays =
+        new PersianRecurrence.Builder().workingDaysOnly().at(LocalTime.of(9, 0)).build();
+    // Nowruz holidays and the Friday 1404/01/01 are skipped
+    assertEquals(tehran(14040105, 9, 0), workingDays.next(tehran(14031230, 10, 0)));
+    assertFalse(workingDays.matches(PersianCalendarMath.toEpochDay(14040112)));
+    assertTrue(workingDays.matches(PersianCalendarMath.toEpochDay(14040114)));
+  }
+
+  @Test
+  void next_ImpossibleRule_ReturnsNull() {
+    PersianRecurrence rule = new PersianRecurrence.Builder().months(12).daysOfMonth(31).build();
+    assertNull(rule.next(Instant.EPOCH));
+    assertNull(rule.previous(Instant.EPOCH));
+    assertEquals(0, rule.nextEpochMillis(0, new long[4]));
+  }
+
+  @Test
+  void next_DaylightSavingGap_FiresAfterGap() {
+    // Tehran moved clocks from 00:00 to 01:00 on 1400/01/02, the last such change
+    PersianRecurrence rule = new PersianRecurrence.Builder().at(0, 30).build();
+    Instant fire = rule.next(tehran(14000101, 12, 0));
+    assertEquals(ZonedDateTime.of(2021, 3, 22, 1, 30, 0, 0, TEHRAN).toInstant(), fire);
+  }
+
+  @Test
+  void nextAndPrevious_AreConsistentDayByDay() {
+    PersianRecurrence rule =
+        new PersianRecurrence.Builder()
+            .daysOfMonth(1, 15, -1)
+            .workingDaysOnly()
+            .at(LocalTime.of(8, 30), LocalTime.of(16, 0))
+            .zone(ZoneId.of("Europe/London"))
+            .build();
+    long[] fires = new long[2000];
+    long start = tehran(13900101, 0, 0).toEpochMilli();
+    assertEquals(fires.length, rule.nextEpochMillis(start, fires));
+    long previous = start;
+    for (long fire : fires) {
+      assertEquals(fire, rule.nextEpochMillis(previous));
+      if (previous != start) {
+        assertEquals(previous, rule.previousEpochMillis(fire));
+      }
+      LocalDate day = Instant.ofEpochMilli(fire).atZone(rule.getZone()).toLocalDate();
+      assertTrue(rule.matches(day.toEpochDay()));
+      previous = fire;
+    }
+  }
+
+  @Test
+  void scheduler_RunsAndReschedules() throws Exception {
+    PersianRecurrence rule = new PersianRecurrence.Builder().at(2, 0).build();
+    Instant fire = tehran(14030725, 2, 0);
+    Clock clock = Clock.fixed(fire.minusMillis(20), ZoneOffset.UTC);
+    List<Throwable> uncaught = new CopyOnWriteArrayList<>();
+    ScheduledExecutorService executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+              return thread;
+            });
+    try {
+      CountDownLatch ran = new CountDownLatch(2);
+      PersianScheduler scheduler = new PersianScheduler(executor, clock);
+      PersianScheduler.Job job =
+          scheduler.schedule(
+              rule,
+              () -> {
+                ran.countDown();
+                throw new IllegalStateException("expected by the test");
+              });
+      PersianScheduler.Job other = scheduler.schedule(rule, ran::countDown);
+      assertEquals(fire, job.getNextFireTime());
+      assertTrue(ran.await(10, TimeUnit.SECONDS));
+      executor.submit(() -> {}).get(10, TimeUnit.SECONDS);
+      assertEquals(1, job.getRunCount());
+      assertEquals(1, uncaught.size());
+      assertEquals(tehran(14030726, 2, 0), job.getNextFireTime());
+      assertEquals(tehran(14030726, 2, 0), other.getNextFireTime());
+      job.cancel();
+      assertTrue(job.isCancelled());
+      assertFalse(job.isScheduled());
+      assertNull(job.getNextFireTime());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianResultSetReaderTest {
+  private static final String QUERY =
+      "SELECT ID, NAME, BORN, CREATED, UPDATED FROM PERSON ORDER BY ID";
+
+  private final PersianDateConverter converter = new PersianDateConverter();
+  private Connection connection;
+  private Statement statement;
+
+  @BeforeEach
+  void createTable() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:persian");
+    statement = connection.createStatement();
+    statement.execute(
+        "CREATE TABLE PERSON (ID INT PRIMARY KEY, NAME VARCHAR(20), BORN DATE,"
+            + " CREATED TIMESTAMP, UPDATED TIMESTAMP WITH TIME ZONE)");
+    statement.execute(
+        "INSERT INTO PERSON VALUES"
+            + " (1, 'a', DATE '2024-03-20', TIMESTAMP '2024-03-20 10:15:30.250',"
+            + " TIMESTAMP WITH TIME ZONE '2024-03-20 10:15:30+00:00'),"
+            + " (2, 'b', NULL, TIMESTAMP '2021-03-22 00:30:00', NULL),"
+            + " (3, 'c', DATE '1999-12-31', TIMESTAMP '1999-12-31 23:59:59',"
+            + " TIMESTAMP WITH TIME ZONE '1999-12-31 23:59:59-05:00')");
+  }
+
+  @AfterEach
+  void dropTable() throws SQLException {
+    statement.execute("DROP TABLE PERSON");
+    connection.close();
+  }
+
+  @Test
+  void getPersian_ConvertsLikeConverter() throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(QUERY)) {
+      PersianResultSetReader reader = new PersianResultSetReader(resultSet, converter);
+      assertTrue(reader.next());
+      assertEquals(converter.toPersianDate(LocalDate.of(2024, 3, 20)), reader.getPersian(3));
+      assertEquals(
+          converter.toPersianDateTimeNoZone(LocalDateTime.of(2024, 3, 20, 10, 15, 30, 250_000_000)),
+          reader.getPersian("CREATED"));
+      assertEquals(
+          converter.toPersianDateTime(Instant.parse("2024-03-20T10:15:30Z")),
+          reader.getPersian(5));
+      assertSame(reader.getPersian(3), reader.getPersian("BORN"));
+      assertEquals("a", reader.getResultSet().getString("NAME"));
+      assertTrue(reader.next());
+      assertNull(reader.getPersian(3));
+      assertEquals(PersianResultSetReader.NULL, reader.getEpochMillis(5));
+      StringBuilder out = new StringBuilder();
+      assertFalse(reader.formatTo(5, out));
+      assertTrue(reader.formatTo(4, out));
+      assertEquals(
+          converter.toPersianDateTimeNoZone(LocalDateTime.of(2021, 3, 22, 0, 30)), out.toString());
+      assertTrue(reader.next());
+      assertEquals(Instant.parse("2000-01-01T04:59:59Z").toEpochMilli(), reader.getEpochMillis(5));
+      assertFalse(reader.next());
+      assertEquals(4, reader.getConversionCount());
+    }
+  }
+
+  @Test
+  void nextBatch_ConvertsOnlyReadColumns() throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(QUERY)) {
+      PersianResultSetReader reader =
+          new PersianResultSetReader(resultSet, converter, "CREATED", "UPDATED");
+      List<String> first = reader.nextBatch(row -> row.getPersian(4), 2);
+      assertEquals(2, first.size());
+      List<String> second = reader.nextBatch(row -> row.getPersian(4), 2);
+      assertEquals(1, second.size());
+      assertEquals(
+          converter.toPersianDateTimeNoZone(LocalDateTime.of(1999, 12, 31, 23, 59, 59)),
+          second.get(0));
+      assertTrue(reader.nextBatch(row -> row.getPersian(4), 2).isEmpty());
+      assertEquals(3, reader.getConversionCount());
+    }
+  }
+
+  @Test
+  void constructor_RejectsOtherColumns() throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery(QUERY)) {
+      assertThrows(
+          SQLException.class, () -> new PersianResultSetReader(resultSet, converter, "NAME"));
+      assertThrows(SQLException.class, () -> new PersianResultSetReader(resultSet, converter, 9));
+      PersianResultSetReader reader = new PersianResultSetReader(resultSet, converter, 3);
+      assertTrue(reader.next());
+      assertThrows(SQLException.class, () -> reader.getPersian(4));
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.sohagroup.persiancalendar.Constants.*;
+import static org.sohagroup.persiancalendar.util.PersianTemporalAdjusters.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjuster;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianTemporalAdjustersTest {
+  private static LocalDate date(int persianDate) {
+    return LocalDate.ofEpochDay(PersianCalendarMath.toEpochDay(persianDate));
+  }
+
+  private static int adjust(int persianDate, TemporalAdjuster adjuster) {
+    return PersianCalendarMath.fromEpochDay(date(persianDate).with(adjuster).toEpochDay());
+  }
+
+  @Test
+  void monthQuarterAndYear_ReturnExpectedDays() {
+    assertEquals(14030701, adjust(14030815, firstDayOfQuarter()));
+    assertEquals(14030930, adjust(14030815, lastDayOfQuarter()));
+    assertEquals(14031230, adjust(14031201, lastDayOfQuarter()));
+    assertEquals(14030801, adjust(14030815, firstDayOfMonth()));
+    assertEquals(14030830, adjust(14030815, lastDayOfMonth()));
+    assertEquals(14030631, adjust(14030601, lastDayOfMonth()));
+    assertEquals(14021229, adjust(14021201, lastDayOfMonth()));
+    assertEquals(14030901, adjust(14030815, firstDayOfNextMonth()));
+    assertEquals(14040101, adjust(14031230, firstDayOfNextMonth()));
+    assertEquals(14030101, adjust(14030815, firstDayOfYear()));
+    assertEquals(14031230, adjust(14030815, lastDayOfYear()));
+    assertEquals(14040101, adjust(14030815, nextNowruz()));
+    assertEquals(14040101, adjust(14030101, nextNowruz()));
+    assertEquals(14030725, adjust(14030701, dayOfMonth(25)));
+    assertEquals(14021229, adjust(14021201, dayOfMonth(31)));
+    assertThrows(IllegalArgumentException.class, () -> dayOfMonth(32));
+  }
+
+  @Test
+  void dayOfWeek_ReturnsExpectedDays() {
+    // 1403/12/30 is Thursday 2025-03-20
+    assertEquals(14031230, adjust(14030101, lastInMonth(12, DayOfWeek.THURSDAY)));
+    assertEquals(14031229, adjust(14031230, lastInMonth(DayOfWeek.WEDNESDAY)));
+    assertEquals(14031203, adjust(14031215, firstInMonth(DayOfWeek.FRIDAY)));
+    assertEquals(14031204, adjust(14031203, next(DayOfWeek.SATURDAY)));
+    assertEquals(14031210, adjust(14031203, next(DayOfWeek.FRIDAY)));
+    assertThrows(IllegalArgumentException.class, () -> lastInMonth(13, DayOfWeek.FRIDAY));
+  }
+
+  @Test
+  void adjusters_MatchDayByDaySearch() {
+    for (long epochDay = date(13990101).toEpochDay(); epochDay < date(14100101).toEpochDay();
+        epochDay += 3) {
+      LocalDate date = LocalDate.ofEpochDay(epochDay);
+      int persian = PersianCalendarMath.fromEpochDay(epochDay);
+      int month = PersianCalendarMath.month(persian);
+      LocalDate first = date;
+      while (PersianCalendarMath.day(PersianCalendarMath.fromEpochDay(first.toEpochDay())) != 1) {
+        first = first.minusDays(1);
+      }
+      LocalDate last = date;
+      while (PersianCalendarMath.month(PersianCalendarMath.fromEpochDay(last.toEpochDay() + 1))
+          == month) {
+        last = last.plusDays(1);
+      }
+      assertEquals(first, date.with(firstDayOfMonth()));
+      assertEquals(last, date.with(lastDayOfMonth()));
+      for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+        LocalDate firstInMonth = first;
+        while (firstInMonth.getDayOfWeek() != dayOfWeek) {
+          firstInMonth = firstInMonth.plusDays(1);
+        }
+        LocalDate lastInMonth = last;
+        while (lastInMonth.getDayOfWeek() != dayOfWeek) {
+          lastInMonth = lastInMonth.minusDays(1);
+        }
+        assertEquals(firstInMonth, date.with(firstInMonth(dayOfWeek)));
+        assertEquals(lastInMonth, date.with(lastInMonth(dayOfWeek)));
+        assertEquals(
+            date.with(java.time.temporal.TemporalAdjusters.next(dayOfWeek)),
+            date.with(next(dayOfWeek)));
+      }
+    }
+  }
+
+  @Test
+  void zonedDateTime_KeepsTimeOfDay() {
+    ZonedDateTime dateTime =
+        ZonedDateTime.of(date(14030815), LocalTime.of(2, 30), ZoneId.of(ASIA_TEHRAN_ZONE));
+    ZonedDateTime adjusted = dateTime.with(lastDayOfMonth());
+    assertEquals(date(14030830), adjusted.toLocalDate());
+    assertEquals(LocalTime.of(2, 30), adjusted.toLocalTime());
+    assertEquals(dateTime.getZone(), adjusted.getZone());
+  }
+}
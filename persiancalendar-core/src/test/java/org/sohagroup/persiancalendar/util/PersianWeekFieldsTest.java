@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianWeekFieldsTest {
+  private static long epochDay(int date) {
+    return PersianCalendarMath.toEpochDay(date);
+  }
+
+  @Test
+  void dayOfWeek_StartsOnSaturday() {
+    // 1403/01/01 is Wednesday 2024-03-20
+    assertEquals(5, PersianWeekFields.dayOfWeek(epochDay(14030101)));
+    assertEquals(5, PersianWeekFields.dayOfWeekOfDate(14030101));
+    for (DayOfWeek day : DayOfWeek.values()) {
+      LocalDate date = LocalDate.of(2024, 3, 16).with(TemporalAdjusters.nextOrSame(day));
+      assertEquals(
+          PersianWeekFields.dayOfWeek(date.toEpochDay()), PersianWeekFields.dayOfWeek(day));
+      assertEquals(day, PersianWeekFields.toDayOfWeek(PersianWeekFields.dayOfWeek(day)));
+    }
+    assertEquals(DayOfWeek.SATURDAY, PersianWeekFields.toDayOfWeek(1));
+    assertThrows(IllegalArgumentException.class, () -> PersianWeekFields.toDayOfWeek(0));
+  }
+
+  @Test
+  void weekKey_WeekOfNowruzBelongsToNewYear() {
+    // the week of Nowruz 1403 runs from Saturday 1402/12/26 to Friday 1403/01/03
+    assertEquals(140252, PersianWeekFields.weekKeyOfDate(14021225));
+    assertEquals(140301, PersianWeekFields.weekKeyOfDate(14021226));
+    assertEquals(140301, PersianWeekFields.weekKeyOfDate(14030103));
+    assertEquals(140302, PersianWeekFields.weekKeyOfDate(14030104));
+    assertEquals(1403, PersianWeekFields.weekBasedYear(epochDay(14021229)));
+    assertEquals(1, PersianWeekFields.weekOfYearOfDate(14021229));
+    assertEquals(epochDay(14021226), PersianWeekFields.startOfWeekKey(140301));
+    assertThrows(IllegalArgumentException.class, () -> PersianWeekFields.startOfWeekKey(140353));
+  }
+
+  @Test
+  void weekFields_MatchDayByDayCount() {
+    long end = epochDay(15000101);
+    int key = 130001;
+    int weeks = 1;
+    for (long epochDay = PersianWeekFields.startOfWeekKey(key) + 1; epochDay < end; epochDay++) {
+      int date = PersianCalendarMath.fromEpochDay(epochDay);
+      int dayOfWeek = PersianWeekFields.dayOfWeek(epochDay);
+      int nextKey = PersianWeekFields.weekKey(epochDay);
+      if (dayOfWeek == 1) {
+        assertNotEquals(key, nextKey);
+        int year = nextKey / 100;
+        if (nextKey % 100 == 1) {
+          assertEquals(PersianWeekFields.weeksInYear(year - 1), weeks);
+          weeks = 1;
+        } else {
+          assertEquals(key + 1, nextKey);
+          weeks++;
+        }
+        assertEquals(epochDay, PersianWeekFields.startOfWeekKey(nextKey));
+      } else {
+        assertEquals(key, nextKey);
+      }
+      key = nextKey;
+      assertEquals(key, PersianWeekFields.weekKeyOfDate(date));
+      assertEquals(key % 100, PersianWeekFields.weekOfYear(epochDay));
+      assertEquals(key / 100, PersianWeekFields.weekBasedYear(epochDay));
+
+      PersianMonthGrid grid = PersianMonthGrids.getDefault().ofEpochDay(epochDay);
+      int row = grid.cellOf(PersianCalendarMath.day(date)) / PersianMonthGrid.COLUMNS + 1;
+      assertEquals(row, PersianWeekFields.weekOfMonth(epochDay));
+      assertEquals(row, PersianWeekFields.weekOfMonthOfDate(date));
+    }
+  }
+
+  @Test
+  void batch_MatchesSingleCalls() {
+    long[] epochDays = new long[1000];
+    int[] dates = new int[1000];
+    for (int i = 0; i < epochDays.length; i++) {
+      epochDays[i] = epochDay(14000101) + i / 3 + (i % 7 == 0 ? 400 : 0);
+      dates[i] = PersianCalendarMath.fromEpochDay(epochDays[i]);
+    }
+    int[] daysOfWeek = new int[1000];
+    int[] keys = new int[1000];
+    int[] keysOfDates = new int[1000];
+    PersianWeekFields.daysOfWeek(epochDays, daysOfWeek);
+    PersianWeekFields.weekKeys(epochDays, keys);
+    PersianWeekFields.weekKeysOfDates(dates, keysOfDates);
+    for (int i = 0; i < epochDays.length; i++) {
+      assertEquals(PersianWeekFields.dayOfWeek(epochDays[i]), daysOfWeek[i]);
+      assertEquals(PersianWeekFields.weekKey(epochDays[i]), keys[i]);
+      assertEquals(keys[i], keysOfDates[i]);
+    }
+    assertThrows(
+        IllegalArgumentException.class, () -> PersianWeekFields.weekKeys(epochDays, new int[1]));
+  }
+}
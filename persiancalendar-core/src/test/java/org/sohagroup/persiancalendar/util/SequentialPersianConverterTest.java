@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class SequentialPersianConverterTest {
+  // 2021-09-21T00:00:00Z, the day before Tehran ended daylight saving time
+  private static final long START = 1_632_182_400_000L;
+
+  private static void assertSameAsFullFormat(String pattern, String zone, long step) {
+    PersianDateFormatter format = PersianDateFormatter.ofPattern(pattern);
+    ZoneId zoneId = ZoneId.of(zone);
+    SequentialPersianConverter sequential = new SequentialPersianConverter(format, zoneId);
+    StringBuilder out = new StringBuilder();
+    Random random = new Random(step);
+    long millis = START;
+    for (int i = 0; i < 20_000; i++) {
+      millis += random.nextInt((int) step);
+      long offset = zoneId.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds();
+      String expected = format.format(millis + offset * 1000L);
+      assertEquals(expected, sequential.format(millis), pattern + " at " + millis);
+      out.setLength(0);
+      sequential.formatTo(millis, out);
+      assertEquals(expected, out.toString());
+    }
+  }
+
+  @Test
+  void format_SortedInput_MatchesFullFormat() {
+    assertSameAsFullFormat("yyyy/MM/dd HH:mm:ss.SSS", ASIA_TEHRAN_ZONE, 60_000);
+    assertSameAsFullFormat("yyyy-MM-dd'T'HH:mm:ss", "America/New_York", 3_600_000);
+    assertSameAsFullFormat("EEEE dd hh:mm:ss a", "Europe/London", 600_000);
+    assertSameAsFullFormat("yyyy/MM/dd HH:mm", "UTC", 3_600_000);
+  }
+
+  @Test
+  void format_VariableWidthPattern_MatchesFullFormat() {
+    assertSameAsFullFormat("y/M/d H:m:s", ASIA_TEHRAN_ZONE, 60_000);
+    assertSameAsFullFormat("y/M/d h:mm a", "America/New_York", 3_600_000);
+  }
+
+  @Test
+  void format_UnsortedInput_MovesCursor() {
+    PersianDateConverter converter =
+        new PersianDateConverter(new DateConverterConfig.Builder().build());
+    SequentialPersianConverter sequential = new SequentialPersianConverter(converter);
+    Random random = new Random(42);
+    for (int i = 0; i < 2_000; i++) {
+      long millis = START + (random.nextInt() * 1000L);
+      assertEquals(converter.formatDateTime(millis), sequential.format(millis));
+      assertEquals(
+          converter.formatDateTime(millis), sequential.format(Instant.ofEpochMilli(millis)));
+    }
+  }
+
+  @Test
+  void format_DaylightSavingEnd_UsesNewOffset() {
+    // Tehran left daylight saving time on 2021-09-21T19:30Z, 24:00 local became 23:00
+    SequentialPersianConverter sequential =
+        new SequentialPersianConverter(
+            PersianDateFormatter.ofPattern("yyyy/MM/dd HH:mm"), ZoneId.of(ASIA_TEHRAN_ZONE));
+    long transition = Instant.parse("2021-09-21T19:30:00Z").toEpochMilli();
+    assertEquals("1400/06/30 23:59", sequential.format(transition - 60_000));
+    assertEquals("1400/06/30 23:00", sequential.format(transition));
+    assertEquals("1400/06/31 00:00", sequential.format(transition + 3_600_000));
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class ZoneOffsetTableTest {
+  private static final String[] ZONES = {
+    "Asia/Tehran", "America/New_York", "Asia/Kabul", "Asia/Dubai", "Europe/London",
+    "Australia/Lord_Howe", "+03:30", "UTC"
+  };
+
+  @Test
+  void offsets_SameAsZoneRulesAroundEveryTransition() {
+    for (String id : ZONES) {
+      ZoneId zone = ZoneId.of(id);
+      ZoneOffsetTable table = ZoneOffsetTable.of(zone);
+      ZoneRules rules = zone.getRules();
+      Instant instant = Instant.parse("1850-01-01T00:00:00Z");
+      ZoneOffsetTransition transition;
+      while ((transition = rules.nextTransition(instant)) != null
+          && transition.getInstant().isBefore(Instant.parse("2150-01-01T00:00:00Z"))) {
+        long at = transition.getInstant().toEpochMilli();
+        for (long delta : new long[] {-7_200_001, -3_600_000, -1, 0, 1, 1_800_000, 3_600_000}) {
+          assertOffset(zone, table, at + delta);
+          long local = at + delta + transition.getOffsetBefore().getTotalSeconds() * 1000L;
+          assertResolved(zone, table, local);
+          assertResolved(zone, table, local + 3_600_000);
+        }
+        instant = transition.getInstant();
+      }
+      for (long millis = -6_000_000_000_000L; millis < 8_000_000_000_000L; millis += 997_000_003L) {
+        assertOffset(zone, table, millis);
+        assertResolved(zone, table, millis);
+      }
+    }
+  }
+
+  @Test
+  void of_CachesTables() {
+    ZoneId tehran = ZoneId.of("Asia/Tehran");
+    assertSame(ZoneOffsetTable.of(tehran), ZoneOffsetTable.of(ZoneId.of("Asia/Tehran")));
+    assertEquals(tehran, ZoneOffsetTable.of(tehran).getZone());
+    assertThrows(NullPointerException.class, () -> ZoneOffsetTable.of(null));
+  }
+
+  @Test
+  void of_EvictsLeastRecentlyUsedTable() {
+    ZoneId tehran = ZoneId.of("Asia/Tehran");
+    ZoneId kabul = ZoneId.of("Asia/Kabul");
+    ZoneOffsetTable kept = ZoneOffsetTable.of(tehran);
+    ZoneOffsetTable evicted = ZoneOffsetTable.of(kabul);
+    for (int i = 0; i < ZoneOffsetTable.MAX_CACHED; i++) {
+      ZoneOffsetTable.of(ZoneOffset.ofTotalSeconds((i + 1) * 60));
+      ZoneOffsetTable.of(tehran);
+    }
+    assertSame(kept, ZoneOffsetTable.of(tehran));
+    assertNotSame(evicted, ZoneOffsetTable.of(kabul));
+  }
+
+  private static void assertOffset(ZoneId zone, ZoneOffsetTable table, long epochMillis) {
+    int expected = zone.getRules().getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds();
+    assertEquals(expected * 1000L, table.offsetMillis(epochMillis), zone + " " + epochMillis);
+    assertEquals(epochMillis + expected * 1000L, table.toLocalMillis(epochMillis));
+  }
+
+  private static void assertResolved(ZoneId zone, ZoneOffsetTable table, long localMillis) {
+    LocalDateTime local =
+        LocalDateTime.ofEpochSecond(
+            Math.floorDiv(localMillis, 1000L),
+            (int) Math.floorMod(localMillis, 1000L) * 1_000_000,
+            ZoneOffset.UTC);
+    ZonedDateTime earlier = local.atZone(zone);
+    assertEquals(
+        earlier.toInstant().toEpochMilli(),
+        table.toEpochMillis(localMillis, false),
+        zone + " " + local);
+    assertEquals(
+        earlier.withLaterOffsetAtOverlap().toInstant().toEpochMilli(),
+        table.toEpochMillis(localMillis, true),
+        zone + " " + local);
+  }
+}
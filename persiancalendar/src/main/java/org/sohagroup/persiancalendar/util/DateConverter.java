@@ -19,6 +19,7 @@ import static org.sohagroup.persiancalendar.Constants.*;
 
 import com.ibm.icu.text.SimpleDateFormat;
 import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.TimeZone;
 import com.ibm.icu.util.ULocale;
 import jakarta.validation.constraints.NotNull;
 import java.text.ParseException;
@@ -28,7 +29,9 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,41 +39,77 @@ import org.slf4j.LoggerFactory;
 /**This calss convert  Persian to GregorianCalendar and vice-versa.
  * It's mainly base on IBM ICU4j and Java Internal java.time
  * Main goal of this is to ease of use of ICU4j and cover its problem in thread-safety.
+ * Values are formatted and parsed in the zone of the {@link DateConverterConfig}, Asia/Tehran by
+ * default, and {@code LocalDate} and {@code LocalDateTime} inputs are taken in that zone.
  * @author : moradi, moradi@sohagroup.org
  * @since : 1.0.0
  */
 public class DateConverter {
+  /** Number of zones other than the configured one whose formats are kept. */
+  static final int MAX_CACHED_ZONES = 8;
+
+  private final ZoneId zone;
+  private final ZoneOffsetTable offsets;
   private final SimpleDateFormat dateFormat;
   private final SimpleDateFormat datetimeFormat;
   private final SimpleDateFormat findDateFormat;
+  /** {@link #dateFormat} and {@link #datetimeFormat}, as returned by {@link #formatsIn}. */
+  private final SimpleDateFormat[] configuredFormats;
+  private final PersianDateString.EpochFormat lazyDateFormat = this::formatDate;
+  private final PersianDateString.EpochFormat lazyDatetimeFormat = this::formatDateTime;
   private static final Logger logger = LoggerFactory.getLogger(DateConverter.class);
 
+  /** Date and date-time formats of the zones asked for per call, least recently used first. */
+  private final Map<ZoneId, SimpleDateFormat[]> zoneFormats =
+      new LinkedHashMap<ZoneId, SimpleDateFormat[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ZoneId, SimpleDateFormat[]> eldest) {
+          return size() > MAX_CACHED_ZONES;
+        }
+      };
+
   public DateConverter(DateConverterConfig config) {
     logger.trace("Init the DateConverter {}", config);
     ULocale persianLocale = new ULocale(PERSIAN_DATE_FORMAT);
+    this.zone = config.getZone();
+    this.offsets = ZoneOffsetTable.of(zone);
     this.dateFormat = new SimpleDateFormat(config.getDateFormat(), ULocale.forLocale(Locale.US));
     this.datetimeFormat =
         new SimpleDateFormat(config.getDatetimeFormat(), ULocale.forLocale(Locale.US));
     this.findDateFormat =
         new SimpleDateFormat(config.getFindDateFormat(), ULocale.forLocale(Locale.US));
-    Calendar persianCalendar = Calendar.getInstance(persianLocale);
+    Calendar persianCalendar = Calendar.getInstance(icuZone(zone), persianLocale);
     this.dateFormat.setCalendar(persianCalendar);
     this.datetimeFormat.setCalendar(persianCalendar);
     this.findDateFormat.setCalendar(persianCalendar);
+    this.configuredFormats = new SimpleDateFormat[] {dateFormat, datetimeFormat};
   }
 
   public DateConverter() {
     ULocale persianLocale = new ULocale(PERSIAN_DATE_FORMAT);
+    this.zone = ZoneId.of(ASIA_TEHRAN_ZONE);
+    this.offsets = ZoneOffsetTable.of(zone);
     this.dateFormat =
         new SimpleDateFormat(DEFAULT_PERSIAN_DATE_FORMAT, ULocale.forLocale(Locale.US));
     this.datetimeFormat =
         new SimpleDateFormat(DEFAULT_PERSIAN_DATE_TIME_FORMAT, ULocale.forLocale(Locale.US));
     this.findDateFormat =
         new SimpleDateFormat(DEFAULT_PERSIAN_DATE_TIME_FORMAT, ULocale.forLocale(Locale.US));
-    Calendar persianCalendar = Calendar.getInstance(persianLocale);
+    Calendar persianCalendar = Calendar.getInstance(icuZone(zone), persianLocale);
     this.dateFormat.setCalendar(persianCalendar);
     this.datetimeFormat.setCalendar(persianCalendar);
     this.findDateFormat.setCalendar(persianCalendar);
+    this.configuredFormats = new SimpleDateFormat[] {dateFormat, datetimeFormat};
+  }
+
+  /** @return the zone values are formatted and parsed in */
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  /** @return the pattern of the date-time format */
+  synchronized String getDateTimePattern() {
+    return datetimeFormat.toPattern();
   }
 
   /**
@@ -105,6 +144,29 @@ public class DateConverter {
     return dateFormat.format(java.util.Date.from(dateTimeNoZone));
   }
 
+  /**
+   * Same as {@link #toPersianDate(Instant)}, but formatted only when the result is first read, so
+   * a value that is never rendered does not take the lock nor run the ICU formatter.
+   *
+   * @param instant the value to convert
+   * @return Persian date in format yyyy/MM/dd or any format specified in dateFormat
+   */
+  public PersianDateString toLazyPersianDate(@NotNull Instant instant) {
+    Objects.requireNonNull(instant, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    return PersianDateString.of(instant.toEpochMilli(), lazyDateFormat);
+  }
+
+  /**
+   * Same as {@link #toPersianDateTime(Instant)}, but formatted only when the result is first read.
+   *
+   * @param instant the value to convert
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss or any format specified in datetimeFormat
+   */
+  public PersianDateString toLazyPersianDateTime(@NotNull Instant instant) {
+    Objects.requireNonNull(instant, "dateTimeWithZone param must not be null");
+    return PersianDateString.of(instant.toEpochMilli(), lazyDatetimeFormat);
+  }
+
     /**
      * This method convert the input Date and Time to Persian Calendar with default format yyyy/MM/dd
      *
@@ -129,12 +191,39 @@ public class DateConverter {
     return datetimeFormat.format(java.util.Date.from(dateTimeWithZone));
   }
 
+  /**
+   * Same as {@link #toPersianDate(Instant)}, in another zone than the configured one. The formats
+   * of the last {@value #MAX_CACHED_ZONES} zones used are kept.
+   *
+   * @param dateTimeWithZone the value to convert
+   * @param zoneId the zone of the result
+   * @return Persian date in format yyyy/MM/dd
+   * @throws IllegalArgumentException if ICU does not know the zone
+   */
+  public synchronized String toPersianDate(@NotNull Instant dateTimeWithZone, ZoneId zoneId) {
+    Objects.requireNonNull(dateTimeWithZone, DATE_TIME_ZONE_MUST_NOT_BE_NULL_MESSAGE);
+    return formatsIn(zoneId)[0].format(java.util.Date.from(dateTimeWithZone));
+  }
+
+  /**
+   * Same as {@link #toPersianDateTime(Instant)}, in another zone than the configured one.
+   *
+   * @param dateTimeWithZone the value to convert
+   * @param zoneId the zone of the result
+   * @return Persian date in format yyyy/MM/dd'T'HH:mm:ss
+   * @throws IllegalArgumentException if ICU does not know the zone
+   */
+  public synchronized String toPersianDateTime(@NotNull Instant dateTimeWithZone, ZoneId zoneId) {
+    Objects.requireNonNull(dateTimeWithZone, "dateTimeWithZone param must not be null");
+    return formatsIn(zoneId)[1].format(java.util.Date.from(dateTimeWithZone));
+  }
+
     /**
      * Converts the provided {@link Instant} representing a date and time to a string formatted according
      * to the Persian calendar system, taking into account a specific time zone.
      * This method accepts an {@link Instant} which represents a point on the time-line not tied
      * to any specific time zone. It then converts this {@code Instant} into a {@link ZonedDateTime}
-     * in the Asia/Tehran time zone, and formats it as a string according to the Persian calendar system.
+     * in the configured time zone, and formats it as a string according to the Persian calendar system.
      * The output format of the date-time string is determined by the {@code datetimeFormat} which should
      * be initialized to format dates in the Persian calendar system. Ensure that {@code datetimeFormat}
      * is properly set up for Persian date formatting prior to invoking this method.
@@ -142,14 +231,13 @@ public class DateConverter {
      * @param dateTimeWithZone The {@link Instant} to be converted, representing a specific moment
      *                         in time in the UTC time zone.
      * @return A {@code String} representing the date and time of the provided {@code Instant}
-     *         in the Persian calendar system and Asia/Tehran time zone. The format of the returned
+     *         in the Persian calendar system and the configured time zone. The format of the returned
      *         string is dependent on the configuration of {@code datetimeFormat}.
      * @throws NullPointerException if {@code dateTimeWithZone} is {@code null}.
      */
   public synchronized String toPersianDateTimeWithZone(@NotNull Instant dateTimeWithZone) {
     Objects.requireNonNull(dateTimeWithZone, "dateTimeWithZone param must not be null");
-    ZonedDateTime zonedDateTime =
-        ZonedDateTime.ofInstant(dateTimeWithZone, ZoneId.of(ASIA_TEHRAN_ZONE));
+    ZonedDateTime zonedDateTime = ZonedDateTime.ofInstant(dateTimeWithZone, zone);
     return datetimeFormat.format(java.util.Date.from(zonedDateTime.toInstant()));
   }
   /**
@@ -163,8 +251,7 @@ public class DateConverter {
    */
   public synchronized String  toPersianDateTimeNoZone(@NotNull LocalDateTime localDateTime) {
     Objects.requireNonNull(localDateTime, LOCALDATE_TIME_MUST_NOT_BE_NULL_MESSAGE);
-    return datetimeFormat.format(
-        java.util.Date.from(Instant.from(localDateTime.atZone(ZoneId.of(ASIA_TEHRAN_ZONE)))));
+    return datetimeFormat.format(new java.util.Date(fromLocal(localDateTime)));
   }
   /**
    * Convert the LocalDateTime to its Persian Equivalent, for example 2023-03-21T00:00:00 or 2023-03-21 to
@@ -181,7 +268,7 @@ public class DateConverter {
   }
   public synchronized String toPersianDate(@NotNull LocalDate localDate) {
     Objects.requireNonNull(localDate, LOCALDATE_TIME_MUST_NOT_BE_NULL_MESSAGE);
-    return dateFormat.format(java.util.Date.from(localDate.atStartOfDay(ZoneId.of(ASIA_TEHRAN_ZONE)).toInstant()));
+    return dateFormat.format(new java.util.Date(fromLocal(localDate.atStartOfDay())));
   }
 
   /**
@@ -195,18 +282,15 @@ public class DateConverter {
    */
   public synchronized String toPersianLocalDate(@NotNull LocalDate localDate) {
     Objects.requireNonNull(localDate, LOCALDATE_MUST_NOT_BE_NULL_MESSAGE);
-    return dateFormat.format(
-        java.util.Date.from(Instant.from(localDate.atStartOfDay(ZoneId.of(ASIA_TEHRAN_ZONE)))));
+    return dateFormat.format(new java.util.Date(fromLocal(localDate.atStartOfDay())));
   }
   public synchronized String toPersianLocalDateTime(@NotNull LocalDate localDate) {
     Objects.requireNonNull(localDate, LOCALDATE_MUST_NOT_BE_NULL_MESSAGE);
-    return datetimeFormat.format(
-        java.util.Date.from(Instant.from(localDate.atStartOfDay(ZoneId.of(ASIA_TEHRAN_ZONE)))));
+    return datetimeFormat.format(new java.util.Date(fromLocal(localDate.atStartOfDay())));
   }
   public synchronized String toPersianLocalDateTime(@NotNull LocalDateTime localDateTime) {
     Objects.requireNonNull(localDateTime, LOCALDATE_MUST_NOT_BE_NULL_MESSAGE);
-    return datetimeFormat.format(
-        java.util.Date.from(Instant.from(localDateTime.atZone(ZoneId.of(ASIA_TEHRAN_ZONE)))));
+    return datetimeFormat.format(new java.util.Date(fromLocal(localDateTime)));
   }
 
     /**
@@ -240,7 +324,7 @@ public class DateConverter {
       LocalDate date;
       try {
           date = LocalDate.parse(gregorianDateTime, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-          logger.info("Converted  string date to : {}", date);
+          logger.trace("Converted  string date to : {}", date);
       } catch (DateTimeParseException e) {
           throw new IllegalArgumentException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + gregorianDateTime, e);
       }
@@ -260,7 +344,7 @@ public class DateConverter {
       LocalDate date;
       try {
           date = LocalDate.parse(gregorianDateTime, DateTimeFormatter.ISO_DATE);
-          logger.info("Converted  string date to : {}", date);
+          logger.trace("Converted  string date to : {}", date);
       } catch (DateTimeParseException e) {
           throw new IllegalArgumentException(ERROR_IN_PARSING_INPUT_DATE_MESSAGE + gregorianDateTime, e);
       }
@@ -277,7 +361,7 @@ public class DateConverter {
 
       ZonedDateTime zonedDateTime = null;
       try {
-          zonedDateTime = ZonedDateTime.ofInstant(dateFormat.parse(persianDate).toInstant(), ZoneId.systemDefault());
+          zonedDateTime = ZonedDateTime.ofInstant(dateFormat.parse(persianDate).toInstant(), zone);
           Instant minus = zonedDateTime.minusDays(days).toInstant();
           return dateFormat.format(java.util.Date.from(minus));
       } catch (ParseException e) {
@@ -294,7 +378,7 @@ public class DateConverter {
 
       ZonedDateTime zonedDateTime = null;
       try {
-          zonedDateTime = ZonedDateTime.ofInstant(dateFormat.parse(persianDate).toInstant(), ZoneId.systemDefault());
+          zonedDateTime = ZonedDateTime.ofInstant(dateFormat.parse(persianDate).toInstant(), zone);
           Instant minus = zonedDateTime.plusDays(days).toInstant();
           return dateFormat.format(java.util.Date.from(minus));
       } catch (ParseException e) {
@@ -310,8 +394,8 @@ public class DateConverter {
      */
   public synchronized Long localDateDuration(String startPersianDate, String endPersianDate, ChronoUnit unit){
       try {
-          ZonedDateTime startZonedDateTime = ZonedDateTime.ofInstant(dateFormat.parse(startPersianDate).toInstant(), ZoneId.systemDefault());
-          ZonedDateTime endZoneDateTime = ZonedDateTime.ofInstant(dateFormat.parse(endPersianDate).toInstant(), ZoneId.systemDefault());
+          ZonedDateTime startZonedDateTime = ZonedDateTime.ofInstant(dateFormat.parse(startPersianDate).toInstant(), zone);
+          ZonedDateTime endZoneDateTime = ZonedDateTime.ofInstant(dateFormat.parse(endPersianDate).toInstant(), zone);
           return unit.between(startZonedDateTime, endZoneDateTime);
       } catch (ParseException e) {
           throw new IllegalArgumentException("Date as specified is not parsable either "+startPersianDate+" or "+endPersianDate);
@@ -326,8 +410,8 @@ public class DateConverter {
      */
   public synchronized Long localDateTimeDuration(String startPersianDate, String endPersianDate, ChronoUnit unit){
       try {
-          ZonedDateTime startZonedDateTime = ZonedDateTime.ofInstant(datetimeFormat.parse(startPersianDate).toInstant(), ZoneId.systemDefault());
-          ZonedDateTime endZoneDateTime = ZonedDateTime.ofInstant(datetimeFormat.parse(endPersianDate).toInstant(), ZoneId.systemDefault());
+          ZonedDateTime startZonedDateTime = ZonedDateTime.ofInstant(datetimeFormat.parse(startPersianDate).toInstant(), zone);
+          ZonedDateTime endZoneDateTime = ZonedDateTime.ofInstant(datetimeFormat.parse(endPersianDate).toInstant(), zone);
           return unit.between(startZonedDateTime, endZoneDateTime);
       } catch (ParseException e) {
           throw new IllegalArgumentException("Date as specified is not parsable either "+startPersianDate+" or "+endPersianDate);
@@ -387,9 +471,112 @@ public class DateConverter {
         }
     }
 
+  /** Resolves a wall clock time of the zone like {@link LocalDateTime#atZone}. */
+  private long fromLocal(LocalDateTime localDateTime) {
+    return offsets.toEpochMillis(
+        localDateTime.toLocalDate().toEpochDay() * 86_400_000L
+            + localDateTime.toLocalTime().toNanoOfDay() / 1_000_000L,
+        false);
+  }
 
+  /** @return the date and date-time formats of a zone */
+  private SimpleDateFormat[] formatsIn(ZoneId zoneId) {
+    Objects.requireNonNull(zoneId, "zoneId param must not be null");
+    if (zoneId.equals(zone)) {
+      return configuredFormats;
+    }
+    SimpleDateFormat[] formats = zoneFormats.get(zoneId);
+    if (formats == null) {
+      TimeZone timeZone = icuZone(zoneId);
+      formats =
+          new SimpleDateFormat[] {
+            (SimpleDateFormat) dateFormat.clone(), (SimpleDateFormat) datetimeFormat.clone()
+          };
+      formats[0].setTimeZone(timeZone);
+      formats[1].setTimeZone(timeZone);
+      zoneFormats.put(zoneId, formats);
+    }
+    return formats;
+  }
 
+  /**
+   * @return the ICU zone of a {@link ZoneId}, offsets such as {@code +03:30} as {@code GMT+03:30}
+   * @throws IllegalArgumentException if ICU does not know the zone
+   */
+  static TimeZone icuZone(ZoneId zoneId) {
+    ZoneId normalized = zoneId.normalized();
+    String id;
+    if (normalized instanceof ZoneOffset) {
+      id = normalized.equals(ZoneOffset.UTC) ? "UTC" : "GMT" + normalized.getId();
+    } else {
+      id = normalized.getId();
+    }
+    TimeZone timeZone = TimeZone.getTimeZone(id);
+    if (TimeZone.UNKNOWN_ZONE_ID.equals(timeZone.getID())) {
+      throw new IllegalArgumentException("Zone is not known to ICU: " + zoneId);
+    }
+    return timeZone;
+  }
 
+  private synchronized String formatDate(long epochMillis) {
+    return dateFormat.format(new java.util.Date(epochMillis));
+  }
 
+  private synchronized String formatDateTime(long epochMillis) {
+    return datetimeFormat.format(new java.util.Date(epochMillis));
+  }
 
+  /**
+   * Runs every conversion of this converter once, so ICU classes, locale and calendar data and
+   * zone rules are loaded before the first real request. Call it at application startup, or use
+   * {@link #warmUp(int)} to also let the JIT compile the conversion paths. Parsing steps are
+   * skipped for formats that do not parse back what they format.
+   */
+  public void warmUp() {
+    warmUp(1);
+  }
+
+  /**
+   * Runs every conversion of this converter {@code iterations} times, see {@link #warmUp()}. A few
+   * thousand iterations are usually enough for the JIT to compile the hot paths.
+   *
+   * @param iterations number of passes over the conversion paths
+   */
+  public synchronized void warmUp(int iterations) {
+    logger.trace("Warming up the DateConverter with {} iterations", iterations);
+    Instant instant = Instant.parse("2024-03-20T10:15:30Z");
+    LocalDate localDate = LocalDate.of(2024, 3, 20);
+    LocalDateTime localDateTime = localDate.atTime(10, 15, 30);
+    for (int i = 0; i < iterations; i++) {
+      getCurrentDate();
+      getCurrentDateTime();
+      String date = toPersianDate(instant);
+      String dateTime = toPersianDateTime(instant);
+      toPersianDate(instant.atZone(zone));
+      toPersianDateTimeWithZone(instant);
+      toPersianDateTimeNoZone(localDateTime);
+      toPersianDateTime(localDate);
+      toPersianDate(localDate);
+      toPersianLocalDate(localDate);
+      toPersianLocalDateTime(localDate);
+      toPersianLocalDateTime(localDateTime);
+      toPersianDate(localDate.toString());
+      toPersianDateTime(localDateTime.toString());
+      toPersianDateTimeStartOfDay(localDate.toString());
+      try {
+        plusDays(date, 1);
+        minusDays(date, 1);
+        localDateDuration(date, date, ChronoUnit.DAYS);
+        toGregorianDate(date, zone);
+      } catch (IllegalArgumentException e) {
+        logger.trace("Date format does not parse back {}", date, e);
+      }
+      try {
+        localDateTimeDuration(dateTime, dateTime, ChronoUnit.SECONDS);
+        toGregorianDateTime(dateTime, zone);
+      } catch (IllegalArgumentException e) {
+        logger.trace("Date-time format does not parse back {}", dateTime, e);
+      }
+    }
+  }
 }
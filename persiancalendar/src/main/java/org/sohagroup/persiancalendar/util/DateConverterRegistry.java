@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares {@link DateConverter}s between callers with the same {@link DateConverterConfig}, so a
+ * service creating converters per tenant or per request builds the ICU formats and calendar once
+ * per distinct config. {@link DateConverter} is thread-safe, so the shared instances can be used
+ * from any thread.
+ *
+ * <p>The registry keeps at most {@code maxSize} converters and evicts the least recently used one
+ * beyond that. Converters are warmed up when created, so the first caller does not pay for ICU
+ * class loading and rule initialization.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class DateConverterRegistry {
+  public static final int DEFAULT_MAX_SIZE = 64;
+
+  private static final Logger logger = LoggerFactory.getLogger(DateConverterRegistry.class);
+  private static final DateConverterRegistry DEFAULT = new DateConverterRegistry(DEFAULT_MAX_SIZE);
+
+  private final int maxSize;
+  private final Map<DateConverterConfig, DateConverter> converters;
+
+  /** @param maxSize converters kept at most, the least recently used one is evicted beyond it */
+  public DateConverterRegistry(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.converters =
+        new LinkedHashMap<DateConverterConfig, DateConverter>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<DateConverterConfig, DateConverter> eldest) {
+            return size() > DateConverterRegistry.this.maxSize;
+          }
+        };
+  }
+
+  /** @return shared registry keeping {@value #DEFAULT_MAX_SIZE} converters at most */
+  public static DateConverterRegistry getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns the shared converter of the config, creating and warming it up on first use. Two
+   * threads asking for a new config at the same time may both build a converter, only one of them
+   * is kept and returned to both.
+   *
+   * @param config converter configuration
+   * @return the converter shared by all callers with an equal config
+   */
+  public DateConverter get(DateConverterConfig config) {
+    Objects.requireNonNull(config, "config param must not be null");
+    DateConverter converter;
+    synchronized (converters) {
+      converter = converters.get(config);
+    }
+    if (converter != null) {
+      return converter;
+    }
+    DateConverter created = new DateConverter(config);
+    created.warmUp();
+    synchronized (converters) {
+      converter = converters.get(config);
+      if (converter == null) {
+        logger.trace("Register the DateConverter {}", config);
+        converters.put(config, created);
+        converter = created;
+      }
+    }
+    return converter;
+  }
+
+  /**
+   * Creates the converters of the configs ahead of the first request, for example at application
+   * startup.
+   *
+   * @param configs the configs to prepare
+   */
+  public void warmUp(Iterable<DateConverterConfig> configs) {
+    Objects.requireNonNull(configs, "configs param must not be null");
+    for (DateConverterConfig config : configs) {
+      get(config);
+    }
+  }
+
+  /** @return number of converters kept */
+  public int size() {
+    synchronized (converters) {
+      return converters.size();
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /** Drops all converters, callers holding one can keep using it. */
+  public void clear() {
+    synchronized (converters) {
+      converters.clear();
+    }
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Rewrites ISO-8601 dates and timestamps found in text streams to their Persian equivalent, for
+ * example in application logs or audit exports. A date such as {@code 2024-03-20} is replaced by
+ * {@link DateConverter#toPersianDate(LocalDate)}, a local timestamp such as {@code
+ * 2024-03-20T10:15:30} (or {@code 2024-03-20 10:15:30}) by {@link
+ * DateConverter#toPersianDateTimeNoZone(LocalDateTime)} and a timestamp carrying {@code Z} or an
+ * offset by {@link DateConverter#toPersianDateTime(Instant)}. A fractional second is kept verbatim
+ * after the converted value when the date-time pattern ends with the seconds field and dropped
+ * otherwise, anything that is not a valid date is left untouched.
+ *
+ * <p>Input is scanned once, buffer by buffer, so memory use is constant whatever the size of the
+ * stream. Since consecutive lines of a log mostly share the same timestamp, the last converted
+ * value is cached and reused without calling the converter again.
+ *
+ * <p>Instances are not thread-safe, use one rewriter per stream.
+ *
+ * @author : ehsan, moradi@sohagroup.org
+ * @since : 1.2.0
+ */
+public class PersianTimestampRewriter {
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private final DateConverter converter;
+  private final int bufferSize;
+  /** Whether the date-time pattern ends with seconds, so the input's fraction can follow them. */
+  private final boolean keepsFraction;
+  private final IsoTimestampMatcher matcher = new IsoTimestampMatcher();
+
+  private int lastDateKey = -1;
+  private String lastDate;
+  private long lastLocalKey = Long.MIN_VALUE;
+  private String lastLocal;
+  private long lastInstantKey = Long.MIN_VALUE;
+  private String lastInstant;
+  private String lastEncoded;
+  private byte[] lastEncodedBytes;
+
+  public PersianTimestampRewriter(DateConverter converter) {
+    this(converter, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param converter the converter which defines the output formats
+   * @param bufferSize size of the read buffer in chars or bytes, at least 64
+   */
+  public PersianTimestampRewriter(DateConverter converter, int bufferSize) {
+    this.converter = Objects.requireNonNull(converter, "converter param must not be null");
+    if (bufferSize < 2 * (IsoTimestampMatcher.MAX_TOKEN_LENGTH + 1)) {
+      throw new IllegalArgumentException("bufferSize is too small: " + bufferSize);
+    }
+    this.bufferSize = bufferSize;
+    this.keepsFraction = converter.getDateTimePattern().endsWith("s");
+  }
+
+  /**
+   * Copies {@code in} to {@code out}, replacing every ISO date and timestamp. Neither stream is
+   * closed.
+   *
+   * @return number of replaced dates and timestamps
+   * @throws IOException if reading or writing fails
+   */
+  public long rewrite(Reader in, Writer out) throws IOException {
+    Objects.requireNonNull(in, "in param must not be null");
+    Objects.requireNonNull(out, "out param must not be null");
+    CharRewriter rewriter = new CharRewriter(out);
+    char[] chunk = new char[bufferSize];
+    int read;
+    while ((read = in.read(chunk, 0, chunk.length)) != -1) {
+      rewriter.write(chunk, 0, read);
+    }
+    rewriter.finish();
+    return rewriter.replaced;
+  }
+
+  /**
+   * Copies {@code in} to {@code out}, replacing every ISO date and timestamp. The input must be
+   * UTF-8 or any other ASCII compatible encoding, the replacements are written as UTF-8. Neither
+   * channel is closed.
+   *
+   * @return number of replaced dates and timestamps
+   * @throws IOException if reading or writing fails
+   */
+  public long rewrite(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+    Objects.requireNonNull(in, "in param must not be null");
+    Objects.requireNonNull(out, "out param must not be null");
+    ByteRewriter rewriter = new ByteRewriter(out);
+    ByteBuffer input = rewriter.input;
+    boolean eof = false;
+    while (!eof) {
+      eof = in.read(input) == -1;
+      int limit = input.position();
+      input.position(rewriter.scan(rewriter.seq, limit, eof));
+      input.limit(limit);
+      input.compact();
+    }
+    rewriter.drain();
+    return rewriter.replaced;
+  }
+
+  /**
+   * Wraps {@code out} in a writer which replaces ISO dates and timestamps on the fly. A timestamp
+   * split over several {@code write} calls is still recognized; text that could be the beginning
+   * of a timestamp is held back until more text arrives, {@code flush} does not force it out but
+   * {@code close} does.
+   *
+   * @param out the writer that receives the rewritten text
+   * @return a writer which has its own state, independent of other writers of this rewriter
+   */
+  public Writer wrap(Writer out) {
+    Objects.requireNonNull(out, "out param must not be null");
+    return new RewritingWriter(new CharRewriter(out));
+  }
+
+  private byte[] encoded(String value) {
+    if (value != lastEncoded) {
+      lastEncoded = value;
+      lastEncodedBytes = value.getBytes(StandardCharsets.UTF_8);
+    }
+    return lastEncodedBytes;
+  }
+
+  /** Converts the last match, or returns {@code null} if it is not a valid date. */
+  private String replacement() {
+    IsoTimestampMatcher m = matcher;
+    try {
+      if (!m.hasTime) {
+        int key = m.year * 10000 + m.month * 100 + m.day;
+        if (key != lastDateKey) {
+          lastDate = converter.toPersianDate(LocalDate.of(m.year, m.month, m.day));
+          lastDateKey = key;
+        }
+        return lastDate;
+      }
+      LocalDateTime local = LocalDateTime.of(m.year, m.month, m.day, m.hour, m.minute, m.second);
+      if (!m.hasOffset) {
+        long key = local.toLocalDate().toEpochDay() * 86400 + local.toLocalTime().toSecondOfDay();
+        if (key != lastLocalKey) {
+          lastLocal = converter.toPersianDateTimeNoZone(local);
+          lastLocalKey = key;
+        }
+        return lastLocal;
+      }
+      long key =
+          local.toLocalDate().toEpochDay() * 86400
+              + local.toLocalTime().toSecondOfDay()
+              - m.offsetSeconds;
+      if (key != lastInstantKey) {
+        lastInstant = converter.toPersianDateTime(Instant.ofEpochSecond(key));
+        lastInstantKey = key;
+      }
+      return lastInstant;
+    } catch (DateTimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * One pass of the matcher over buffered text; subclasses decide where untouched text and
+   * replacements go.
+   */
+  private abstract class Scanner {
+    private boolean previousIsWord;
+    long replaced;
+
+    /** Writes {@code text[from, to)} of the last scanned text unchanged. */
+    abstract void copy(int from, int to) throws IOException;
+
+    /** Writes the replacement of a match. */
+    abstract void replace(String replacement) throws IOException;
+
+    /**
+     * Rewrites {@code text[0, limit)}, except for a tail that could begin a timestamp.
+     *
+     * @param eof whether no more text follows, in which case no tail is kept
+     * @return index of the kept tail, which must be scanned again once more text arrives
+     */
+    final int scan(CharSequence text, int limit, boolean eof) throws IOException {
+      int from = 0;
+      int i = 0;
+      while (i < limit) {
+        if (!IsoTimestampMatcher.isDigit(text.charAt(i))) {
+          i++;
+          continue;
+        }
+        boolean boundary =
+            i == 0 ? !previousIsWord : !IsoTimestampMatcher.isWordChar(text.charAt(i - 1));
+        if (!boundary) {
+          i++;
+          continue;
+        }
+        int end = matcher.match(text, i, limit, eof);
+        if (end == IsoTimestampMatcher.NEED_MORE) {
+          break;
+        }
+        if (end == IsoTimestampMatcher.NO_MATCH) {
+          i++;
+          continue;
+        }
+        String replacement = replacement();
+        if (replacement == null) {
+          i = end;
+          continue;
+        }
+        copy(from, i);
+        replace(replacement);
+        if (keepsFraction && matcher.fractionEnd > matcher.fractionStart) {
+          copy(matcher.fractionStart, matcher.fractionEnd);
+        }
+        replaced++;
+        from = i = end;
+      }
+      if (eof) {
+        i = limit;
+      }
+      copy(from, i);
+      if (i > 0) {
+        previousIsWord = IsoTimestampMatcher.isWordChar(text.charAt(i - 1));
+      }
+      return i;
+    }
+  }
+
+  /** Rewriter over ASCII compatible bytes, used by the channel variant of {@code rewrite}. */
+  private final class ByteRewriter extends Scanner {
+    private final WritableByteChannel out;
+    private final ByteBuffer input = ByteBuffer.allocate(bufferSize);
+    private final ByteBuffer output = ByteBuffer.allocate(bufferSize);
+    private final AsciiSequence seq =
+        new AsciiSequence().wrap(input.array(), 0, input.capacity());
+
+    ByteRewriter(WritableByteChannel out) {
+      this.out = out;
+    }
+
+    @Override
+    void copy(int from, int to) throws IOException {
+      put(input.array(), from, to - from);
+    }
+
+    @Override
+    void replace(String replacement) throws IOException {
+      byte[] bytes = encoded(replacement);
+      put(bytes, 0, bytes.length);
+    }
+
+    /** Writes out everything buffered in {@code output}. */
+    void drain() throws IOException {
+      output.flip();
+      while (output.hasRemaining()) {
+        out.write(output);
+      }
+      output.clear();
+    }
+
+    private void put(byte[] src, int off, int len) throws IOException {
+      while (len > 0) {
+        int n = Math.min(len, output.remaining());
+        output.put(src, off, n);
+        off += n;
+        len -= n;
+        if (!output.hasRemaining()) {
+          drain();
+        }
+      }
+    }
+  }
+
+  /** Incremental rewriter over chars, shared by {@link #rewrite(Reader, Writer)} and writers. */
+  private final class CharRewriter extends Scanner {
+    private final Writer out;
+    private final char[] buf = new char[bufferSize];
+    private final CharBuffer seq = CharBuffer.wrap(buf);
+    private int count;
+
+    CharRewriter(Writer out) {
+      this.out = out;
+    }
+
+    void write(int c) throws IOException {
+      buf[count++] = (char) c;
+      if (count == buf.length) {
+        process(false);
+      }
+    }
+
+    void write(char[] src, int off, int len) throws IOException {
+      while (len > 0) {
+        int n = Math.min(len, buf.length - count);
+        System.arraycopy(src, off, buf, count, n);
+        count += n;
+        off += n;
+        len -= n;
+        if (count == buf.length) {
+          process(false);
+        }
+      }
+    }
+
+    void write(String src, int off, int len) throws IOException {
+      while (len > 0) {
+        int n = Math.min(len, buf.length - count);
+        src.getChars(off, off + n, buf, count);
+        count += n;
+        off += n;
+        len -= n;
+        if (count == buf.length) {
+          process(false);
+        }
+      }
+    }
+
+    void flush() throws IOException {
+      process(false);
+      out.flush();
+    }
+
+    void finish() throws IOException {
+      process(true);
+    }
+
+    @Override
+    void copy(int from, int to) throws IOException {
+      out.write(buf, from, to - from);
+    }
+
+    @Override
+    void replace(String replacement) throws IOException {
+      out.write(replacement);
+    }
+
+    /** Rewrites the buffered text and keeps an undecided tail at the start of the buffer. */
+    private void process(boolean eof) throws IOException {
+      int limit = count;
+      int tail = scan(seq, limit, eof);
+      System.arraycopy(buf, tail, buf, 0, limit - tail);
+      count = limit - tail;
+    }
+  }
+
+  private static final class RewritingWriter extends FilterWriter {
+    private final CharRewriter rewriter;
+    private boolean closed;
+
+    RewritingWriter(CharRewriter rewriter) {
+      super(rewriter.out);
+      this.rewriter = rewriter;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+      rewriter.write(c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+      rewriter.write(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+      rewriter.write(str, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      rewriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        rewriter.finish();
+        out.close();
+      }
+    }
+  }
+}
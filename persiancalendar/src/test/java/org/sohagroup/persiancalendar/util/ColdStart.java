@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.time.Instant;
+
+/**
+ * Measures the first request of a fresh JVM served by {@link DateConverter}, with or without
+ * {@link DateConverter#warmUp()} at startup and with or without an AppCDS archive. The {@code
+ * app-cds} profile builds the archive and runs every combination, each in its own JVM:
+ *
+ * <pre>
+ * mvn -P app-cds package -DskipTests
+ * </pre>
+ *
+ * It prints one line of the form {@code mode=warm appCds=true readyMs=.. firstConversionMs=..
+ * firstResponseMs=..}, where {@code readyMs} is the JVM uptime once the converter is created (and
+ * warmed up), {@code firstConversionMs} the duration of the first conversion after that and
+ * {@code firstResponseMs} the uptime when it returned.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+public class ColdStart {
+
+  public static void main(String[] args) {
+    boolean warm = args.length > 0 && "warm".equals(args[0]);
+    RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    boolean appCds = false;
+    for (String argument : runtime.getInputArguments()) {
+      appCds |= argument.startsWith("-XX:SharedArchiveFile");
+    }
+    DateConverter converter = new DateConverter();
+    if (warm) {
+      converter.warmUp();
+    }
+    long ready = runtime.getUptime();
+    long start = System.nanoTime();
+    String result = converter.toPersianDateTime(Instant.parse("2024-03-20T10:15:30Z"));
+    long elapsed = System.nanoTime() - start;
+    System.out.printf(
+        "mode=%s appCds=%s result=%s readyMs=%d firstConversionMs=%.2f firstResponseMs=%d%n",
+        warm ? "warm" : "cold", appCds, result, ready, elapsed / 1e6, runtime.getUptime());
+  }
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.Constants.ASIA_TEHRAN_ZONE;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures how the converters scale with the number of threads sharing one instance. Every thread
+ * runs the same mix of calls on the shared converter, a quarter each of formatting an instant,
+ * parsing a date, a duration in days and {@code plusDays}, first for a warm-up period and then for
+ * a measured one. Each implementation is warmed up on one thread before its first run, and the
+ * throughput of a run is divided by the time from the first thread entering to the last thread
+ * leaving the measured window. The {@code concurrency-benchmark} profile runs it for the ICU
+ * converter, whose methods lock the converter, and the core converter:
+ *
+ * <pre>
+ * mvn -P concurrency-benchmark test -DskipTests
+ * </pre>
+ *
+ * <p>Platform threads are doubled from 1 to the maximum, then thousands of virtual threads are
+ * run when the JVM has them (JDK 21 or higher, looked up by reflection). Every run prints one
+ * line and the report is written as JSON to the first argument, by default {@code
+ * concurrency-benchmark.json}, with the throughput, the p50, p99 and p999 latency and, for platform
+ * threads, the number of times and milliseconds the threads were blocked on a monitor as reported
+ * by {@link ThreadMXBean}. Further arguments are the maximum number of platform threads, the
+ * measured milliseconds per run and the comma separated numbers of virtual threads.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+public class ConcurrencyBenchmark {
+  private static final int INPUTS = 1024;
+  private static final String WORKLOAD =
+      "toPersianDateTime,toGregorianDate,localDateDuration,plusDays";
+
+  private final DifferentialVerification.Subject converter;
+  private final ZoneId zone;
+  private final Instant[] instants = new Instant[INPUTS];
+  private final String[] persianDates = new String[INPUTS];
+  private final long warmUpMillis;
+  private final long measuredMillis;
+
+  private ConcurrencyBenchmark(
+      DifferentialVerification.Subject converter, long warmUpMillis, long measuredMillis) {
+    this.converter = converter;
+    this.zone = ZoneId.of(ASIA_TEHRAN_ZONE);
+    this.warmUpMillis = warmUpMillis;
+    this.measuredMillis = measuredMillis;
+    PersianDateConverter inputs = new PersianDateConverter();
+    for (int i = 0; i < INPUTS; i++) {
+      LocalDate date = LocalDate.of(2001, 3, 21).plusDays(i * 11L);
+      instants[i] = Instant.ofEpochSecond(date.toEpochDay() * 86_400L + i * 37L);
+      persianDates[i] = inputs.toPersianDate(date);
+    }
+  }
+
+  /** One call of the mix, the result keeps the JIT from dropping the call. */
+  private Object call(int i) {
+    int input = i & (INPUTS - 1);
+    switch (i & 3) {
+      case 0:
+        return converter.toPersianDateTime(instants[input]);
+      case 1:
+        return converter.toGregorianDate(persianDates[input], zone);
+      case 2:
+        return converter.localDateDuration(
+            persianDates[input], persianDates[(input + 17) & (INPUTS - 1)], ChronoUnit.DAYS);
+      default:
+        return converter.plusDays(persianDates[input], 30);
+    }
+  }
+
+  /** Runs the mix on {@code threads} platform threads. */
+  private Run runPlatform(String implementation, int threads) throws InterruptedException {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    boolean contention = threadBean.isThreadContentionMonitoringSupported();
+    if (contention) {
+      threadBean.setThreadContentionMonitoringEnabled(true);
+    }
+    Run run = new Run(implementation, "platform", threads);
+    Histogram[] histograms = new Histogram[threads];
+    long[] operations = new long[threads];
+    long[] starts = new long[threads];
+    long[] ends = new long[threads];
+    long[][] blocked = new long[threads][];
+    CountDownLatch ready = new CountDownLatch(threads);
+    CountDownLatch go = new CountDownLatch(1);
+    Thread[] workers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      int index = t;
+      histograms[t] = new Histogram();
+      workers[t] =
+          new Thread(
+              () -> {
+                ready.countDown();
+                await(go);
+                long start = System.nanoTime();
+                loop(
+                    index * 7919, start + TimeUnit.MILLISECONDS.toNanos(warmUpMillis), null, false);
+                long[] before = contention ? blocked(threadBean) : null;
+                starts[index] = System.nanoTime();
+                operations[index] =
+                    loop(
+                        index * 7919,
+                        starts[index] + TimeUnit.MILLISECONDS.toNanos(measuredMillis),
+                        histograms[index],
+                        false);
+                ends[index] = System.nanoTime();
+                if (contention) {
+                  long[] after = blocked(threadBean);
+                  blocked[index] = new long[] {after[0] - before[0], after[1] - before[1]};
+                }
+              },
+              "benchmark-" + t);
+      workers[t].start();
+    }
+    ready.await();
+    go.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long firstStart = starts[0];
+    long lastEnd = ends[0];
+    for (int t = 0; t < threads; t++) {
+      run.histogram.add(histograms[t]);
+      run.add(operations[t]);
+      firstStart = Math.min(firstStart, starts[t]);
+      lastEnd = Math.max(lastEnd, ends[t]);
+      if (blocked[t] != null) {
+        run.blockedCount += blocked[t][0];
+        run.blockedMillis += blocked[t][1];
+      }
+    }
+    run.contentionMeasured = contention;
+    run.seconds = (lastEnd - firstStart) / 1e9;
+    return run;
+  }
+
+  /**
+   * Runs the mix on {@code threads} virtual threads, recording into shared histograms. The calls
+   * are CPU bound and would keep the carrier threads until the deadline, so every virtual thread
+   * yields after each call to let the others run. Threads that still made no call in the measured
+   * window are left out of {@link Run#activeThreads}.
+   *
+   * @return the run, or null when the JVM has no virtual threads
+   */
+  private Run runVirtual(String implementation, int threads) throws Exception {
+    ExecutorService executor;
+    try {
+      executor =
+          (ExecutorService)
+              Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+    Run run = new Run(implementation, "virtual", threads);
+    Histogram[] shards = new Histogram[64];
+    for (int s = 0; s < shards.length; s++) {
+      shards[s] = new Histogram();
+    }
+    long[] operations = new long[threads];
+    long[] ends = new long[threads];
+    CountDownLatch ready = new CountDownLatch(threads);
+    CountDownLatch go = new CountDownLatch(1);
+    long[] measureStart = new long[1];
+    try {
+      for (int t = 0; t < threads; t++) {
+        int index = t;
+        executor.execute(
+            () -> {
+              ready.countDown();
+              await(go);
+              loop(index * 7919, measureStart[0], null, true);
+              operations[index] =
+                  loop(
+                      index * 7919,
+                      measureStart[0] + TimeUnit.MILLISECONDS.toNanos(measuredMillis),
+                      shards[index & (shards.length - 1)],
+                      true);
+              ends[index] = System.nanoTime();
+            });
+      }
+      ready.await();
+      measureStart[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(warmUpMillis);
+      go.countDown();
+    } finally {
+      executor.shutdown();
+    }
+    executor.awaitTermination(1, TimeUnit.HOURS);
+    for (Histogram shard : shards) {
+      run.histogram.add(shard);
+    }
+    long lastEnd = measureStart[0];
+    for (int t = 0; t < threads; t++) {
+      run.add(operations[t]);
+      lastEnd = Math.max(lastEnd, ends[t]);
+    }
+    run.seconds = (lastEnd - measureStart[0]) / 1e9;
+    return run;
+  }
+
+  /**
+   * Runs the JIT in on the current thread, so the runs with one thread measure compiled code like
+   * the later ones.
+   */
+  private void warmUp(long millis) {
+    loop(0, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis), null, false);
+  }
+
+  /**
+   * @param yield whether to yield after each call, for virtual threads
+   * @return number of calls made until {@code deadline}, recorded when a histogram is given
+   */
+  private long loop(int seed, long deadline, Histogram histogram, boolean yield) {
+    long count = 0;
+    int i = seed;
+    while (true) {
+      long start = System.nanoTime();
+      if (start - deadline >= 0) {
+        break;
+      }
+      Object result = call(i++);
+      if (histogram != null) {
+        histogram.record(System.nanoTime() - start);
+      }
+      if (result == null) {
+        throw new IllegalStateException("Call " + (i - 1) + " returned null");
+      }
+      count++;
+      if (yield) {
+        Thread.yield();
+      }
+    }
+    return count;
+  }
+
+  private static long[] blocked(ThreadMXBean threadBean) {
+    ThreadInfo info = threadBean.getThreadInfo(Thread.currentThread().getId());
+    return new long[] {info.getBlockedCount(), Math.max(0, info.getBlockedTime())};
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Latencies in nanoseconds in log-linear buckets, 16 per power of two, so a percentile is within
+   * about 6% of the recorded value. Safe to record into from several threads.
+   */
+  static final class Histogram {
+    private static final int SUB_BUCKETS = 16;
+    private final AtomicLongArray counts = new AtomicLongArray(60 * SUB_BUCKETS);
+
+    void record(long nanos) {
+      counts.incrementAndGet(index(Math.max(0, nanos)));
+    }
+
+    void add(Histogram other) {
+      for (int i = 0; i < counts.length(); i++) {
+        counts.addAndGet(i, other.counts.get(i));
+      }
+    }
+
+    long count() {
+      long count = 0;
+      for (int i = 0; i < counts.length(); i++) {
+        count += counts.get(i);
+      }
+      return count;
+    }
+
+    /** @return upper bound of the bucket holding the {@code quantile} of the values, 0 if empty */
+    long percentile(double quantile) {
+      long rank = (long) Math.ceil(quantile * count());
+      long seen = 0;
+      for (int i = 0; i < counts.length(); i++) {
+        seen += counts.get(i);
+        if (seen >= rank && seen > 0) {
+          return upperBound(i);
+        }
+      }
+      return 0;
+    }
+
+    static int index(long value) {
+      if (value < SUB_BUCKETS) {
+        return (int) value;
+      }
+      int exponent = 63 - Long.numberOfLeadingZeros(value);
+      return (exponent - 3) * SUB_BUCKETS + (int) ((value >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBound(int index) {
+      if (index < SUB_BUCKETS) {
+        return index;
+      }
+      int shift = index / SUB_BUCKETS - 1;
+      return ((SUB_BUCKETS + 1L + index % SUB_BUCKETS) << shift) - 1;
+    }
+  }
+
+  /** Results of one implementation and number of threads. */
+  static final class Run {
+    final String implementation;
+    final String threadKind;
+    final int threads;
+    final Histogram histogram = new Histogram();
+    long operations;
+    /** Threads that made at least one call in the measured window. */
+    int activeThreads;
+    double seconds;
+    boolean contentionMeasured;
+    long blockedCount;
+    long blockedMillis;
+
+    Run(String implementation, String threadKind, int threads) {
+      this.implementation = implementation;
+      this.threadKind = threadKind;
+      this.threads = threads;
+    }
+
+    void add(long threadOperations) {
+      operations += threadOperations;
+      if (threadOperations > 0) {
+        activeThreads++;
+      }
+    }
+
+    double throughput() {
+      return operations / seconds;
+    }
+
+    String toJson() {
+      return String.format(
+          Locale.ROOT,
+          "{\"implementation\":\"%s\",\"threadKind\":\"%s\",\"threads\":%d,"
+              + "\"activeThreads\":%d,\"operations\":%d,\"elapsedMillis\":%.1f,"
+              + "\"throughputPerSecond\":%.1f,\"p50Micros\":%.3f,\"p99Micros\":%.3f,"
+              + "\"p999Micros\":%.3f,\"blockedCount\":%s,\"blockedMillis\":%s}",
+          implementation,
+          threadKind,
+          threads,
+          activeThreads,
+          operations,
+          seconds * 1e3,
+          throughput(),
+          histogram.percentile(0.50) / 1e3,
+          histogram.percentile(0.99) / 1e3,
+          histogram.percentile(0.999) / 1e3,
+          contentionMeasured ? Long.toString(blockedCount) : "null",
+          contentionMeasured ? Long.toString(blockedMillis) : "null");
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ROOT,
+          "impl=%s threads=%d %s active=%d throughput=%.0f/s p50=%.2fus p99=%.2fus p999=%.2fus"
+              + " blocked=%s blockedMs=%s",
+          implementation,
+          threads,
+          threadKind,
+          activeThreads,
+          throughput(),
+          histogram.percentile(0.50) / 1e3,
+          histogram.percentile(0.99) / 1e3,
+          histogram.percentile(0.999) / 1e3,
+          contentionMeasured ? Long.toString(blockedCount) : "-",
+          contentionMeasured ? Long.toString(blockedMillis) : "-");
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Path output = Paths.get(args.length > 0 ? args[0] : "concurrency-benchmark.json");
+    int cores = Runtime.getRuntime().availableProcessors();
+    int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(8, cores * 2);
+    long measuredMillis = args.length > 2 ? Long.parseLong(args[2]) : 2000;
+    String virtual = args.length > 3 ? args[3] : "1000,10000";
+    long warmUpMillis = Math.max(200, measuredMillis / 4);
+
+    DateConverter icu = new DateConverter();
+    icu.warmUp(5_000);
+    List<ConcurrencyBenchmark> benchmarks = new ArrayList<>();
+    benchmarks.add(
+        new ConcurrencyBenchmark(DifferentialVerification.of(icu), warmUpMillis, measuredMillis));
+    benchmarks.add(
+        new ConcurrencyBenchmark(
+            DifferentialVerification.of(new PersianDateConverter()), warmUpMillis, measuredMillis));
+    String[] names = {"icu", "core"};
+
+    List<Run> runs = new ArrayList<>();
+    boolean virtualThreads = true;
+    for (int b = 0; b < benchmarks.size(); b++) {
+      benchmarks.get(b).warmUp(Math.max(2000, measuredMillis));
+      for (int threads : threadCounts(maxThreads)) {
+        Run run = benchmarks.get(b).runPlatform(names[b], threads);
+        System.out.println(run);
+        runs.add(run);
+      }
+      for (String count : virtual.split(",")) {
+        if (!count.trim().isEmpty() && virtualThreads) {
+          Run run = benchmarks.get(b).runVirtual(names[b], Integer.parseInt(count.trim()));
+          if (run == null) {
+            System.out.println("Virtual threads need JDK 21 or higher, skipped");
+            virtualThreads = false;
+          } else {
+            System.out.println(run);
+            runs.add(run);
+          }
+        }
+      }
+    }
+
+    StringBuilder json = new StringBuilder();
+    json.append(
+        String.format(
+            Locale.ROOT,
+            "{\"javaVersion\":\"%s\",\"availableProcessors\":%d,\"warmUpMillis\":%d,"
+                + "\"measuredMillis\":%d,\"workload\":\"%s\",\"virtualThreads\":%s,\"runs\":[",
+            System.getProperty("java.version"),
+            cores,
+            warmUpMillis,
+            measuredMillis,
+            WORKLOAD,
+            virtualThreads));
+    for (int i = 0; i < runs.size(); i++) {
+      json.append(i == 0 ? "\n  " : ",\n  ").append(runs.get(i).toJson());
+    }
+    json.append("\n]}\n");
+    writeReport(output, json.toString());
+    System.out.println("Report written to " + output.toAbsolutePath());
+  }
+
+  /** @return 1, 2, 4 and so on, ending with {@code maxThreads} */
+  static List<Integer> threadCounts(int maxThreads) {
+    List<Integer> counts = new ArrayList<>();
+    for (int threads = 1; threads < maxThreads; threads *= 2) {
+      counts.add(threads);
+    }
+    counts.add(maxThreads);
+    return counts;
+  }
+
+  private static void writeReport(Path output, String json) throws IOException {
+    Path parent = output.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Files.write(output, json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -458,6 +458,62 @@ class DateConverterConfigTest {
             expectedGregorianDate, result, "The conversion did not produce the expected Persian date.");
     }
 
+    @Test
+    void warmUp_KeepsResultsAndAcceptsFormatsThatDoNotParseBack() {
+      Instant instant = Instant.parse("2024-03-20T10:15:30Z");
+      String before = dateConverter.toPersianDateTime(instant);
+      dateConverter.warmUp();
+      dateConverter.warmUp(100);
+      assertEquals(before, dateConverter.toPersianDateTime(instant));
+
+      DateConverter names =
+          new DateConverter(
+              new DateConverterConfig.Builder()
+                  .withDateFormat("EEEE")
+                  .withDateTimeFormat("HH")
+                  .build());
+      assertDoesNotThrow(() -> names.warmUp());
+    }
+
+    @Test
+    void toLazyPersianDateTime_FormatsOnFirstRead() throws Exception {
+      Instant instant = Instant.parse("2024-03-20T10:15:30Z");
+      PersianDateString date = dateConverter.toLazyPersianDate(instant);
+      PersianDateString dateTime = dateConverter.toLazyPersianDateTime(instant);
+      assertFalse(date.isFormatted());
+      assertEquals(
+          dateConverter.toPersianDateTime(instant),
+          dateTime.appendTo(new StringBuilder()).toString());
+      assertFalse(dateTime.isFormatted());
+      assertEquals(dateConverter.toPersianDate(instant), date.toString());
+      assertTrue(date.isFormatted());
+
+      DateConverter names =
+          new DateConverter(
+              new DateConverterConfig.Builder().withDateFormat("EEEE d MMMM").build());
+      assertEquals(names.toPersianDate(instant), names.toLazyPersianDate(instant).toString());
+    }
+
+    @Test
+    void withZone_DefaultsToTehranAndTakesPartInEquality() {
+      DateConverterConfig tehran = new DateConverterConfig.Builder().build();
+      DateConverterConfig kabul = new DateConverterConfig.Builder().withZone("Asia/Kabul").build();
+      assertEquals(ZoneId.of(ASIA_TEHRAN_ZONE), tehran.getZone());
+      assertEquals(ZoneId.of(ASIA_TEHRAN_ZONE), new DateConverter().getZone());
+      assertNotEquals(tehran, kabul);
+      assertEquals(
+          kabul, new DateConverterConfig.Builder().withZone(ZoneId.of("Asia/Kabul")).build());
+      assertTrue(kabul.toString().contains("Asia/Kabul"));
+
+      Instant instant = Instant.parse("2024-03-20T20:00:00Z");
+      assertEquals("1403/01/01T23:30:00", dateConverter.toPersianDateTime(instant));
+      assertEquals("1403/01/02T00:30:00", new DateConverter(kabul).toPersianDateTime(instant));
+      assertEquals(
+          "1403/01/02T00:30:00", dateConverter.toPersianDateTime(instant, ZoneId.of("Asia/Kabul")));
+      assertEquals("1403/01/01", dateConverter.toPersianDate(instant, ZoneOffset.UTC));
+      assertEquals("1403/01/02", dateConverter.toPersianDate(instant, ZoneId.of("GMT+04:30")));
+    }
+
     @Test
     public void testConvertGregorianToPersianThreadSafetyLocalDateTime() throws InterruptedException {
         String expectedOutput = "1403/01/01T00:00:00";
@@ -525,6 +581,7 @@ class DateConverterConfigTest {
         executorService.awaitTermination(Integer.MAX_VALUE, TimeUnit.SECONDS);
         System.out.println("time = " + time + " ms");
     }
+
 //    @Test
 //    public void testConvertGregorianToPersianThreadSafety_3rd() throws InterruptedException {
 //        final LocalDate inputDate = LocalDate.of(2023, 3, 21);
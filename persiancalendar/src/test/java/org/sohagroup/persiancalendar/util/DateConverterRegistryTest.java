@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class DateConverterRegistryTest {
+  private static DateConverterConfig config(String dateFormat, String findDateFormat) {
+    return new DateConverterConfig.Builder()
+        .withDateFormat(dateFormat)
+        .withFindDateFormat(findDateFormat)
+        .build();
+  }
+
+  @Test
+  void config_EqualityIncludesFindDateFormat() {
+    assertEquals(config("yyyy/MM/dd", "yyyyMMdd"), config("yyyy/MM/dd", "yyyyMMdd"));
+    assertEquals(
+        config("yyyy/MM/dd", "yyyyMMdd").hashCode(), config("yyyy/MM/dd", "yyyyMMdd").hashCode());
+    assertNotEquals(config("yyyy/MM/dd", "yyyyMMdd"), config("yyyy/MM/dd", "yyyy-MM-dd"));
+  }
+
+  @Test
+  void get_SameConfig_ReturnsSharedConverter() {
+    DateConverterRegistry registry = new DateConverterRegistry(4);
+    DateConverter converter = registry.get(config("yyyy/MM/dd", "yyyyMMdd"));
+    assertSame(converter, registry.get(config("yyyy/MM/dd", "yyyyMMdd")));
+    assertNotSame(converter, registry.get(config("yyyy/MM/dd", "yyyy-MM-dd")));
+    assertEquals(2, registry.size());
+  }
+
+  @Test
+  void get_BeyondMaxSize_EvictsLeastRecentlyUsed() {
+    DateConverterRegistry registry = new DateConverterRegistry(2);
+    DateConverter first = registry.get(config("yyyy/MM/dd", "yyyyMMdd"));
+    DateConverter second = registry.get(config("yyyy-MM-dd", "yyyyMMdd"));
+    assertSame(first, registry.get(config("yyyy/MM/dd", "yyyyMMdd")));
+    registry.get(config("yy/MM/dd", "yyyyMMdd"));
+    assertEquals(2, registry.size());
+    assertSame(first, registry.get(config("yyyy/MM/dd", "yyyyMMdd")));
+    assertNotSame(second, registry.get(config("yyyy-MM-dd", "yyyyMMdd")));
+  }
+
+  @Test
+  void warmUp_CreatesConverters() {
+    DateConverterRegistry registry = new DateConverterRegistry(8);
+    registry.warmUp(
+        Arrays.asList(config("yyyy/MM/dd", "yyyyMMdd"), config("MMM d, yyyy", "yyyyMMdd")));
+    assertEquals(2, registry.size());
+    registry.clear();
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  void get_Concurrent_ReturnsOneConverterPerConfig() throws InterruptedException {
+    DateConverterRegistry registry = new DateConverterRegistry(4);
+    Set<DateConverter> seen = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 64; i++) {
+      executor.execute(() -> seen.add(registry.get(config("yyyy.MM.dd", "yyyyMMdd"))));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(1, seen.size());
+  }
+
+  @Test
+  void constructor_InvalidMaxSize_Throws() {
+    assertThrows(IllegalArgumentException.class, () -> new DateConverterRegistry(0));
+  }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.sohagroup.persiancalendar.util.PersianDateFormatter.MILLIS_PER_DAY;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Compares a candidate implementation with the ICU backed {@link DateConverter}, call by call, so a
+ * faster conversion path can replace it only once it gives the same results. Every day of a range
+ * of Persian years is formatted, also from its ISO-8601 text, parsed back and shifted, and every
+ * minute within {@value #WINDOW_MINUTES} minutes of each transition of the zone is formatted as an
+ * instant and as a wall clock time. The outputs of the reference are the inputs of the parsing and
+ * arithmetic calls of both implementations.
+ *
+ * <p>The work is split in chunks of days and transitions run on a pool of threads, each with its
+ * own converters, so the locks of {@link DateConverter} are not shared. Run it for the core
+ * converter and the default formats with:
+ *
+ * <pre>
+ * mvn -P differential-verification test
+ * </pre>
+ *
+ * or as a program with the arguments {@code fromYear toYear threads}. It prints a summary with the
+ * number of comparisons and divergences per call and the first divergences of each call.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+public class DifferentialVerification {
+  static final int WINDOW_MINUTES = 180;
+  private static final int DAYS_PER_CHUNK = 4096;
+  private static final int EXAMPLES_PER_CHECK = 3;
+
+  /** The conversions compared, in the terms of {@link DateConverter}. */
+  public interface Subject {
+    String toPersianDate(LocalDate localDate);
+
+    String toPersianLocalDateTime(LocalDate localDate);
+
+    String toPersianDateTime(Instant instant);
+
+    String toPersianDateTimeNoZone(LocalDateTime localDateTime);
+
+    String toPersianDate(String gregorianDate);
+
+    String toPersianDateTime(String gregorianDateTime);
+
+    String toPersianDateTimeStartOfDay(String gregorianDate);
+
+    LocalDate toGregorianDate(String persianDate, ZoneId zoneId);
+
+    LocalDateTime toGregorianDateTime(String persianDate, ZoneId zoneId);
+
+    String plusDays(String persianDate, long days);
+
+    String minusDays(String persianDate, long days);
+
+    Long localDateDuration(String startPersianDate, String endPersianDate, ChronoUnit unit);
+
+    Long localDateTimeDuration(String startPersianDate, String endPersianDate, ChronoUnit unit);
+  }
+
+  private final Supplier<Subject> reference;
+  private final Supplier<Subject> candidate;
+  private final ZoneId zone;
+
+  /**
+   * @param reference creates the implementation taken as correct, once per thread
+   * @param candidate creates the implementation checked, once per thread
+   * @param zone the zone both implementations convert in
+   */
+  public DifferentialVerification(
+      Supplier<Subject> reference, Supplier<Subject> candidate, ZoneId zone) {
+    this.reference = Objects.requireNonNull(reference, "reference param must not be null");
+    this.candidate = Objects.requireNonNull(candidate, "candidate param must not be null");
+    this.zone = Objects.requireNonNull(zone, "zone param must not be null");
+  }
+
+  /**
+   * Compares the ICU converter and the core converter, both built from a config.
+   *
+   * @param config formats and zone of both converters
+   * @return the verification
+   */
+  public static DifferentialVerification icuAgainstCore(DateConverterConfig config) {
+    return new DifferentialVerification(
+        () -> of(new DateConverter(config)),
+        () -> of(new PersianDateConverter(config)),
+        config.getZone());
+  }
+
+  /**
+   * Checks every day of the Persian years {@code fromYear} to {@code toYear} and every transition
+   * of the zone within them.
+   *
+   * @param fromYear first Persian year
+   * @param toYear last Persian year
+   * @param threads number of threads
+   * @return the summary
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  public Report run(int fromYear, int toYear, int threads) throws InterruptedException {
+    long firstDay = PersianCalendarMath.firstDayOfYear(fromYear);
+    long endDay = PersianCalendarMath.firstDayOfYear(toYear + 1);
+    List<Long> transitions = transitions(firstDay * MILLIS_PER_DAY, endDay * MILLIS_PER_DAY);
+    Report report = new Report(fromYear, toYear, endDay - firstDay, transitions.size(), threads);
+    ThreadLocal<Subject[]> subjects =
+        ThreadLocal.withInitial(() -> new Subject[] {reference.get(), candidate.get()});
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    try {
+      List<Future<?>> tasks = new ArrayList<>();
+      for (long day = firstDay; day < endDay; day += DAYS_PER_CHUNK) {
+        long from = day;
+        long to = Math.min(endDay, day + DAYS_PER_CHUNK);
+        tasks.add(executor.submit(() -> checkDays(subjects.get(), from, to, report)));
+      }
+      for (long transition : transitions) {
+        tasks.add(executor.submit(() -> checkTransition(subjects.get(), transition, report)));
+      }
+      for (Future<?> task : tasks) {
+        task.get();
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Verification failed", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    report.elapsedNanos = System.nanoTime() - start;
+    return report;
+  }
+
+  private void checkDays(Subject[] subjects, long fromDay, long toDay, Report report) {
+    Subject icu = subjects[0];
+    Subject other = subjects[1];
+    for (long day = fromDay; day < toDay; day++) {
+      LocalDate date = LocalDate.ofEpochDay(day);
+      Instant instant = Instant.ofEpochMilli(day * MILLIS_PER_DAY + 49_631_000L);
+      Object persianDate =
+          report.check(
+              "format.date", date, () -> icu.toPersianDate(date), () -> other.toPersianDate(date));
+      Object persianDateTime =
+          report.check(
+              "format.localDateTime",
+              date,
+              () -> icu.toPersianLocalDateTime(date),
+              () -> other.toPersianLocalDateTime(date));
+      report.check(
+          "format.instant",
+          instant,
+          () -> icu.toPersianDateTime(instant),
+          () -> other.toPersianDateTime(instant));
+      String isoDate = date.toString();
+      String isoDateTime = date.atTime(13, 47, 11).toString();
+      report.check(
+          "format.isoDate",
+          isoDate,
+          () -> icu.toPersianDate(isoDate),
+          () -> other.toPersianDate(isoDate));
+      report.check(
+          "format.isoDateTime",
+          isoDateTime,
+          () -> icu.toPersianDateTime(isoDateTime),
+          () -> other.toPersianDateTime(isoDateTime));
+      report.check(
+          "format.isoStartOfDay",
+          isoDate,
+          () -> icu.toPersianDateTimeStartOfDay(isoDate),
+          () -> other.toPersianDateTimeStartOfDay(isoDate));
+      if (persianDate instanceof String) {
+        String text = (String) persianDate;
+        report.check(
+            "parse.date",
+            text,
+            () -> icu.toGregorianDate(text, zone),
+            () -> other.toGregorianDate(text, zone));
+        Object next =
+            report.check(
+                "arithmetic.plusDays",
+                text,
+                () -> icu.plusDays(text, 1),
+                () -> other.plusDays(text, 1));
+        report.check(
+            "arithmetic.minusYear",
+            text,
+            () -> icu.minusDays(text, 365),
+            () -> other.minusDays(text, 365));
+        if (next instanceof String) {
+          String end = (String) next;
+          report.check(
+              "arithmetic.dateDuration",
+              text,
+              () -> icu.localDateDuration(text, end, ChronoUnit.HOURS),
+              () -> other.localDateDuration(text, end, ChronoUnit.HOURS));
+        }
+      }
+      if (persianDateTime instanceof String) {
+        String text = (String) persianDateTime;
+        report.check(
+            "parse.dateTime",
+            text,
+            () -> icu.toGregorianDateTime(text, zone),
+            () -> other.toGregorianDateTime(text, zone));
+      }
+    }
+  }
+
+  private void checkTransition(Subject[] subjects, long transition, Report report) {
+    Subject icu = subjects[0];
+    Subject other = subjects[1];
+    ZoneOffset before = zone.getRules().getOffset(Instant.ofEpochMilli(transition - 1));
+    long wallClock = transition + before.getTotalSeconds() * 1000L;
+    String previous = null;
+    for (int minute = -WINDOW_MINUTES; minute <= WINDOW_MINUTES; minute++) {
+      Instant instant = Instant.ofEpochMilli(transition + minute * 60_000L);
+      LocalDateTime local =
+          LocalDateTime.ofEpochSecond(wallClock / 1000L + minute * 60L, 0, ZoneOffset.UTC);
+      Object formatted =
+          report.check(
+              "transition.instant",
+              instant,
+              () -> icu.toPersianDateTime(instant),
+              () -> other.toPersianDateTime(instant));
+      report.check(
+          "transition.wallClock",
+          local,
+          () -> icu.toPersianDateTimeNoZone(local),
+          () -> other.toPersianDateTimeNoZone(local));
+      if (formatted instanceof String) {
+        String text = (String) formatted;
+        report.check(
+            "transition.parse",
+            text,
+            () -> icu.toGregorianDateTime(text, zone),
+            () -> other.toGregorianDateTime(text, zone));
+        if (previous != null) {
+          String start = previous;
+          report.check(
+              "transition.duration",
+              start + " " + text,
+              () -> icu.localDateTimeDuration(start, text, ChronoUnit.SECONDS),
+              () -> other.localDateTimeDuration(start, text, ChronoUnit.SECONDS));
+        }
+        previous = text;
+      }
+    }
+  }
+
+  /** @return epoch millis of the transitions of the zone in {@code [from, to)} */
+  private List<Long> transitions(long fromMillis, long toMillis) {
+    List<Long> transitions = new ArrayList<>();
+    ZoneOffsetTransition transition =
+        zone.getRules().nextTransition(Instant.ofEpochMilli(fromMillis));
+    while (transition != null && transition.toEpochSecond() * 1000L < toMillis) {
+      transitions.add(transition.toEpochSecond() * 1000L);
+      transition = zone.getRules().nextTransition(transition.getInstant());
+    }
+    return transitions;
+  }
+
+  /** A call of a subject, returning its result. */
+  private interface Call {
+    Object call();
+  }
+
+  /** Result of a call that threw, equal to any other failure with the same exception class. */
+  private static final class Failure {
+    private final Class<?> type;
+
+    Failure(RuntimeException e) {
+      this.type = e.getClass();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Failure && ((Failure) o).type == type;
+    }
+
+    @Override
+    public int hashCode() {
+      return type.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return type.getSimpleName();
+    }
+  }
+
+  /** Counts of the comparisons and divergences of each call, thread-safe. */
+  public static final class Report {
+    private final int fromYear;
+    private final int toYear;
+    private final long days;
+    private final int transitions;
+    private final int threads;
+    private final Map<String, AtomicLong[]> counts = new TreeMap<>();
+    private final Map<String, List<String>> examples = new TreeMap<>();
+    private long elapsedNanos;
+
+    private Report(int fromYear, int toYear, long days, int transitions, int threads) {
+      this.fromYear = fromYear;
+      this.toYear = toYear;
+      this.days = days;
+      this.transitions = transitions;
+      this.threads = threads;
+    }
+
+    /** @return the result of the reference, or a {@link Failure} if it threw */
+    private Object check(String name, Object input, Call icu, Call other) {
+      Object expected = result(icu);
+      Object actual = result(other);
+      AtomicLong[] count = counts(name);
+      count[0].incrementAndGet();
+      if (!Objects.equals(expected, actual)) {
+        count[1].incrementAndGet();
+        synchronized (examples) {
+          List<String> list = examples.computeIfAbsent(name, k -> new ArrayList<>());
+          if (list.size() < EXAMPLES_PER_CHECK) {
+            list.add(name + " " + input + ": icu=" + expected + " candidate=" + actual);
+          }
+        }
+      }
+      return expected;
+    }
+
+    private AtomicLong[] counts(String name) {
+      synchronized (counts) {
+        return counts.computeIfAbsent(
+            name, k -> new AtomicLong[] {new AtomicLong(), new AtomicLong()});
+      }
+    }
+
+    private static Object result(Call call) {
+      try {
+        return call.call();
+      } catch (RuntimeException e) {
+        return new Failure(e);
+      }
+    }
+
+    /** @return total number of comparisons */
+    public long getComparisonCount() {
+      return sum(0);
+    }
+
+    /** @return total number of comparisons whose results differ */
+    public long getDivergenceCount() {
+      return sum(1);
+    }
+
+    private long sum(int index) {
+      synchronized (counts) {
+        long sum = 0;
+        for (AtomicLong[] count : counts.values()) {
+          sum += count[index].get();
+        }
+        return sum;
+      }
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder out = new StringBuilder();
+      out.append(
+          String.format(
+              "years %d-%d: %d days, %d transitions, %d threads, %d comparisons,"
+                  + " %d divergences in %.1f s%n",
+              fromYear,
+              toYear,
+              days,
+              transitions,
+              threads,
+              getComparisonCount(),
+              getDivergenceCount(),
+              elapsedNanos / 1e9));
+      synchronized (counts) {
+        for (Map.Entry<String, AtomicLong[]> entry : counts.entrySet()) {
+          out.append(
+              String.format(
+                  "  %-24s %10d compared %8d diverged%n",
+                  entry.getKey(), entry.getValue()[0].get(), entry.getValue()[1].get()));
+        }
+      }
+      synchronized (examples) {
+        for (List<String> list : examples.values()) {
+          for (String example : list) {
+            out.append("  ").append(example).append(System.lineSeparator());
+          }
+        }
+      }
+      return out.toString();
+    }
+  }
+
+  /** @return the calls of the ICU converter */
+  public static Subject of(DateConverter converter) {
+    return new Subject() {
+      @Override
+      public String toPersianDate(LocalDate localDate) {
+        return converter.toPersianDate(localDate);
+      }
+
+      @Override
+      public String toPersianLocalDateTime(LocalDate localDate) {
+        return converter.toPersianLocalDateTime(localDate);
+      }
+
+      @Override
+      public String toPersianDateTime(Instant instant) {
+        return converter.toPersianDateTime(instant);
+      }
+
+      @Override
+      public String toPersianDateTimeNoZone(LocalDateTime localDateTime) {
+        return converter.toPersianDateTimeNoZone(localDateTime);
+      }
+
+      @Override
+      public String toPersianDate(String gregorianDate) {
+        return converter.toPersianDate(gregorianDate);
+      }
+
+      @Override
+      public String toPersianDateTime(String gregorianDateTime) {
+        return converter.toPersianDateTime(gregorianDateTime);
+      }
+
+      @Override
+      public String toPersianDateTimeStartOfDay(String gregorianDate) {
+        return converter.toPersianDateTimeStartOfDay(gregorianDate);
+      }
+
+      @Override
+      public LocalDate toGregorianDate(String persianDate, ZoneId zoneId) {
+        return converter.toGregorianDate(persianDate, zoneId);
+      }
+
+      @Override
+      public LocalDateTime toGregorianDateTime(String persianDate, ZoneId zoneId) {
+        return converter.toGregorianDateTime(persianDate, zoneId);
+      }
+
+      @Override
+      public String plusDays(String persianDate, long days) {
+        return converter.plusDays(persianDate, days);
+      }
+
+      @Override
+      public String minusDays(String persianDate, long days) {
+        return converter.minusDays(persianDate, days);
+      }
+
+      @Override
+      public Long localDateDuration(String start, String end, ChronoUnit unit) {
+        return converter.localDateDuration(start, end, unit);
+      }
+
+      @Override
+      public Long localDateTimeDuration(String start, String end, ChronoUnit unit) {
+        return converter.localDateTimeDuration(start, end, unit);
+      }
+    };
+  }
+
+  /** @return the calls of the core converter */
+  public static Subject of(PersianDateConverter converter) {
+    return new Subject() {
+      @Override
+      public String toPersianDate(LocalDate localDate) {
+        return converter.toPersianDate(localDate);
+      }
+
+      @Override
+      public String toPersianLocalDateTime(LocalDate localDate) {
+        return converter.toPersianLocalDateTime(localDate);
+      }
+
+      @Override
+      public String toPersianDateTime(Instant instant) {
+        return converter.toPersianDateTime(instant);
+      }
+
+      @Override
+      public String toPersianDateTimeNoZone(LocalDateTime localDateTime) {
+        return converter.toPersianDateTimeNoZone(localDateTime);
+      }
+
+      @Override
+      public String toPersianDate(String gregorianDate) {
+        return converter.toPersianDate(gregorianDate);
+      }
+
+      @Override
+      public String toPersianDateTime(String gregorianDateTime) {
+        return converter.toPersianDateTime(gregorianDateTime);
+      }
+
+      @Override
+      public String toPersianDateTimeStartOfDay(String gregorianDate) {
+        return converter.toPersianDateTimeStartOfDay(gregorianDate);
+      }
+
+      @Override
+      public LocalDate toGregorianDate(String persianDate, ZoneId zoneId) {
+        return converter.toGregorianDate(persianDate, zoneId);
+      }
+
+      @Override
+      public LocalDateTime toGregorianDateTime(String persianDate, ZoneId zoneId) {
+        return converter.toGregorianDateTime(persianDate, zoneId);
+      }
+
+      @Override
+      public String plusDays(String persianDate, long days) {
+        return converter.plusDays(persianDate, days);
+      }
+
+      @Override
+      public String minusDays(String persianDate, long days) {
+        return converter.minusDays(persianDate, days);
+      }
+
+      @Override
+      public Long localDateDuration(String start, String end, ChronoUnit unit) {
+        return converter.localDateDuration(start, end, unit);
+      }
+
+      @Override
+      public Long localDateTimeDuration(String start, String end, ChronoUnit unit) {
+        return converter.localDateTimeDuration(start, end, unit);
+      }
+    };
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    int fromYear = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+    int toYear = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+    int threads =
+        args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+    Report report =
+        icuAgainstCore(new DateConverterConfig.Builder().build()).run(fromYear, toYear, threads);
+    System.out.print(report);
+    if (report.getDivergenceCount() > 0) {
+      System.exit(1);
+    }
+  }
+}
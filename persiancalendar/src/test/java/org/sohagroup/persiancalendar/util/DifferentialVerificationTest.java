@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The full run is tagged {@code verification} and only runs with {@code mvn -P
+ * differential-verification test}.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class DifferentialVerificationTest {
+  private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+  @Test
+  void run_CoreSameAsIcuAroundToday() throws Exception {
+    DifferentialVerification.Report report =
+        DifferentialVerification.icuAgainstCore(new DateConverterConfig.Builder().build())
+            .run(1380, 1405, THREADS);
+    assertTrue(report.getComparisonCount() > 9 * 365 * 26, report::toString);
+    assertEquals(0, report.getDivergenceCount(), report::toString);
+  }
+
+  @Test
+  void run_ReportsDivergences() throws Exception {
+    DateConverterConfig config = new DateConverterConfig.Builder().build();
+    DateConverterConfig kabul = new DateConverterConfig.Builder().withZone("Asia/Kabul").build();
+    DifferentialVerification.Report report =
+        new DifferentialVerification(
+                () -> DifferentialVerification.of(new DateConverter(config)),
+                () -> DifferentialVerification.of(new PersianDateConverter(kabul)),
+                config.getZone())
+            .run(1402, 1402, THREADS);
+    assertTrue(report.getDivergenceCount() > 0);
+    assertTrue(report.toString().contains("format.instant"), report::toString);
+  }
+
+  @Test
+  @Tag("verification")
+  void run_CoreSameAsIcuFromYear1To3000() throws Exception {
+    DifferentialVerification.Report report =
+        DifferentialVerification.icuAgainstCore(new DateConverterConfig.Builder().build())
+            .run(1, 3000, THREADS);
+    System.out.print(report);
+    assertEquals(0, report.getDivergenceCount(), report::toString);
+  }
+}
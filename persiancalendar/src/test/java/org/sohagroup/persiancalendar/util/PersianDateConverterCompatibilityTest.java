@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.sohagroup.persiancalendar.Constants.*;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the ICU-free {@link PersianDateConverter} of persiancalendar-core gives the same
+ * results as the ICU backed {@link DateConverter}.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianDateConverterCompatibilityTest {
+  private final DateConverterConfig config =
+      new DateConverterConfig.Builder()
+          .withDateFormat("yyyy-MM-dd")
+          .withDateTimeFormat("yyyy-MM-dd HH:mm:ss")
+          .build();
+  private final DateConverter icu = new DateConverter(config);
+  private final PersianDateConverter core = new PersianDateConverter(config);
+
+  @Test
+  void formatting_SameAsIcu() {
+    LocalDate start = LocalDate.of(1921, 3, 21);
+    LocalDate end = LocalDate.of(2121, 3, 21);
+    for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
+      Instant instant = date.atTime(13, 47, 11).toInstant(ZoneOffset.UTC);
+      assertEquals(icu.toPersianDate(date), core.toPersianDate(date));
+      assertEquals(icu.toPersianLocalDateTime(date), core.toPersianLocalDateTime(date));
+      assertEquals(icu.toPersianDateTime(instant), core.toPersianDateTime(instant));
+    }
+  }
+
+  @Test
+  void parsingAndArithmetic_SameAsIcu() {
+    ZoneId tehran = ZoneId.of(ASIA_TEHRAN_ZONE);
+    for (int year = 1300; year <= 1500; year += 7) {
+      for (int month = 1; month <= 12; month++) {
+        String date = String.format("%04d-%02d-%02d", year, month, 29);
+        String dateTime = date + " 23:59:58";
+        assertEquals(icu.toGregorianDate(date, tehran), core.toGregorianDate(date, tehran));
+        assertEquals(
+            icu.toGregorianDateTime(dateTime, tehran), core.toGregorianDateTime(dateTime, tehran));
+        assertEquals(icu.plusDays(date, 40), core.plusDays(date, 40));
+        assertEquals(icu.minusDays(date, 400), core.minusDays(date, 400));
+        assertEquals(
+            icu.localDateDuration("1400-01-01", date, ChronoUnit.DAYS),
+            core.localDateDuration("1400-01-01", date, ChronoUnit.DAYS));
+        assertEquals(
+            icu.localDateTimeDuration("1400-01-01 00:10:34", dateTime, ChronoUnit.SECONDS),
+            core.localDateTimeDuration("1400-01-01 00:10:34", dateTime, ChronoUnit.SECONDS));
+      }
+    }
+  }
+
+  @Test
+  void configuredAndPerCallZones_SameAsIcu() {
+    ZoneId newYork = ZoneId.of("America/New_York");
+    DateConverterConfig inNewYork =
+        new DateConverterConfig.Builder()
+            .withDateFormat("yyyy-MM-dd")
+            .withDateTimeFormat("yyyy-MM-dd HH:mm:ss")
+            .withZone(newYork)
+            .build();
+    DateConverter icuNewYork = new DateConverter(inNewYork);
+    PersianDateConverter coreNewYork = new PersianDateConverter(inNewYork);
+    assertEquals(newYork, icuNewYork.getZone());
+    assertEquals(newYork, coreNewYork.getZone());
+    ZoneId[] zones = {ZoneId.of("Europe/London"), ZoneOffset.ofHoursMinutes(4, 30), newYork};
+    LocalDateTime start = LocalDateTime.of(2024, 3, 9, 22, 30);
+    for (int hour = 0; hour < 24 * 250; hour++) {
+      LocalDateTime local = start.plusHours(hour);
+      Instant instant = local.toInstant(ZoneOffset.UTC);
+      assertEquals(icuNewYork.toPersianDateTime(instant), coreNewYork.toPersianDateTime(instant));
+      assertEquals(
+          icuNewYork.toPersianDateTimeNoZone(local), coreNewYork.toPersianDateTimeNoZone(local));
+      assertEquals(
+          icuNewYork.toPersianDate(local.toLocalDate()),
+          coreNewYork.toPersianDate(local.toLocalDate()));
+      for (ZoneId zone : zones) {
+        assertEquals(icu.toPersianDate(instant, zone), core.toPersianDate(instant, zone));
+        assertEquals(icu.toPersianDateTime(instant, zone), core.toPersianDateTime(instant, zone));
+      }
+      String date = coreNewYork.toPersianDate(local.toLocalDate());
+      assertEquals(icuNewYork.plusDays(date, 3), coreNewYork.plusDays(date, 3));
+      assertEquals(
+          icuNewYork.localDateDuration("1403-01-01", date, ChronoUnit.HOURS),
+          coreNewYork.localDateDuration("1403-01-01", date, ChronoUnit.HOURS));
+    }
+  }
+}
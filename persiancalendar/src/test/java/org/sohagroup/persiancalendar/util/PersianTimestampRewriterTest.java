@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+class PersianTimestampRewriterTest {
+  private DateConverter dateConverter;
+  private PersianTimestampRewriter rewriter;
+
+  @BeforeEach
+  public void init() {
+    dateConverter =
+        new DateConverter(
+            new DateConverterConfig.Builder()
+                .withDateFormat("yyyy/MM/dd")
+                .withDateTimeFormat("yyyy/MM/dd'T'HH:mm:ss")
+                .build());
+    rewriter = new PersianTimestampRewriter(dateConverter, 128);
+  }
+
+  private String expectedLine() {
+    String date = dateConverter.toPersianDate(LocalDate.of(2024, 3, 20));
+    String local = dateConverter.toPersianDateTimeNoZone(LocalDateTime.of(2024, 3, 20, 10, 15, 30));
+    String instant = dateConverter.toPersianDateTime(Instant.parse("2024-03-20T10:15:30Z"));
+    return "day=" + date + " at " + local + ",123 INFO utc=" + instant
+        + " id=12024-03-20 v2024-03-20\n";
+  }
+
+  private static final String LINE =
+      "day=2024-03-20 at 2024-03-20 10:15:30,123 INFO utc=2024-03-20T10:15:30Z"
+          + " id=12024-03-20 v2024-03-20\n";
+
+  @Test
+  void rewriteReader_ReplacesDatesAndTimestamps() throws IOException {
+    StringWriter out = new StringWriter();
+    // Act
+    long replaced = rewriter.rewrite(new StringReader(LINE), out);
+    // Assert
+    assertEquals(expectedLine(), out.toString());
+    assertEquals(3, replaced);
+  }
+
+  @Test
+  void rewriteReader_TokensSpanningBuffers() throws IOException {
+    StringBuilder in = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      in.append(LINE);
+      expected.append(expectedLine());
+    }
+    StringWriter out = new StringWriter();
+    // Act
+    long replaced = rewriter.rewrite(new StringReader(in.toString()), out);
+    // Assert
+    assertEquals(expected.toString(), out.toString());
+    assertEquals(600, replaced);
+  }
+
+  @Test
+  void rewriteChannel_ReplacesDatesAndTimestamps() throws IOException {
+    StringBuilder in = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      in.append("سلام ").append(LINE);
+      expected.append("سلام ").append(expectedLine());
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // Act
+    long replaced =
+        rewriter.rewrite(
+            Channels.newChannel(
+                new ByteArrayInputStream(in.toString().getBytes(StandardCharsets.UTF_8))),
+            Channels.newChannel(out));
+    // Assert
+    assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    assertEquals(150, replaced);
+  }
+
+  @Test
+  void wrapWriter_HoldsBackPartialTimestampUntilClose() throws IOException {
+    StringWriter out = new StringWriter();
+    Writer writer = rewriter.wrap(out);
+    // Act
+    writer.write("at 2024-03");
+    writer.flush();
+    writer.write('-');
+    writer.write("20");
+    writer.close();
+    // Assert
+    assertEquals("at " + dateConverter.toPersianDate(LocalDate.of(2024, 3, 20)), out.toString());
+  }
+
+  @Test
+  void rewrite_DropsFractionUnlessPatternEndsWithSeconds() throws IOException {
+    DateConverter minutes =
+        new DateConverter(
+            new DateConverterConfig.Builder().withDateTimeFormat("yyyy/MM/dd HH:mm").build());
+    DateConverter literal =
+        new DateConverter(
+            new DateConverterConfig.Builder()
+                .withDateTimeFormat("yyyy/MM/dd HH:mm:ss 'UTC'")
+                .build());
+    String line = "at 2024-03-20T10:15:30.123Z.";
+    Instant instant = Instant.parse("2024-03-20T10:15:30Z");
+    // Act
+    StringWriter minutesOut = new StringWriter();
+    new PersianTimestampRewriter(minutes).rewrite(new StringReader(line), minutesOut);
+    StringWriter literalOut = new StringWriter();
+    new PersianTimestampRewriter(literal).rewrite(new StringReader(line), literalOut);
+    // Assert
+    assertEquals("at " + minutes.toPersianDateTime(instant) + ".", minutesOut.toString());
+    assertEquals("at " + literal.toPersianDateTime(instant) + ".", literalOut.toString());
+    assertEquals("at 1403/01/01 13:45.", minutesOut.toString());
+  }
+
+  @Test
+  void rewrite_LeavesInvalidDatesUntouched() throws IOException {
+    StringWriter out = new StringWriter();
+    String text = "2024-02-31 2024-13-01 2024-1-01 99999-01-01";
+    // Act
+    long replaced = rewriter.rewrite(new StringReader(text), out);
+    // Assert
+    assertEquals(text, out.toString());
+    assertEquals(0, replaced);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Ehsan Moradi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.sohagroup.persiancalendar.util;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Instant;
+
+/**
+ * Measures the cost of the first conversion in a fresh JVM, for the ICU-free core converter or
+ * the ICU backed one. Run it once per implementation, each in its own JVM:
+ *
+ * <pre>
+ * mvn -P startup-footprint test -DskipTests
+ * </pre>
+ *
+ * It prints one line of the form {@code impl=core timeToFirstConversionMs=.. classesLoaded=..
+ * metaspaceKb=.. heapAllocatedKb=.. retainedHeapKb=..}, where the numbers are the difference
+ * between before and after creating a converter and converting one instant.
+ *
+ * @author: ehsan, moradi@sohagroup.org
+ * @since: 1.2.0
+ */
+public class StartupFootprint {
+
+  public static void main(String[] args) {
+    String impl = args.length > 0 ? args[0] : "core";
+    ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+    Instant instant = Instant.parse("2024-03-20T10:15:30Z");
+    System.gc();
+    long classesBefore = classLoading.getTotalLoadedClassCount();
+    long metaspaceBefore = nonHeapUsed();
+    long heapBefore = heapUsed();
+    long start = System.nanoTime();
+    String result;
+    if ("icu".equals(impl)) {
+      result = new DateConverter().toPersianDateTime(instant);
+    } else {
+      result = new PersianDateConverter().toPersianDateTime(instant);
+    }
+    long elapsed = System.nanoTime() - start;
+    long heapAfter = heapUsed();
+    System.gc();
+    System.out.printf(
+        "impl=%s result=%s timeToFirstConversionMs=%.1f classesLoaded=%d metaspaceKb=%d"
+            + " heapAllocatedKb=%d retainedHeapKb=%d%n",
+        impl,
+        result,
+        elapsed / 1e6,
+        classLoading.getTotalLoadedClassCount() - classesBefore,
+        (nonHeapUsed() - metaspaceBefore) / 1024,
+        (heapAfter - heapBefore) / 1024,
+        (heapUsed() - heapBefore) / 1024);
+  }
+
+  private static long heapUsed() {
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static long nonHeapUsed() {
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.NON_HEAP && !pool.getName().startsWith("CodeHeap")) {
+        used += pool.getUsage().getUsed();
+      }
+    }
+    return used;
+  }
+}